@@ -1,11 +1,15 @@
 package com.ubaid.Auth.controller;
 
 import com.google.firebase.database.*;
+import com.ubaid.Auth.service.RatingSummaryService;
+import com.ubaid.Auth.service.ReviewStorageService;
+import com.ubaid.Auth.service.SearchResultCacheService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -16,9 +20,14 @@ import java.util.concurrent.CompletableFuture;
 
 @RestController
 @RequestMapping("/api/admin")
+@RequiredArgsConstructor
 @Slf4j
 public class AdminController {
 
+    private final SearchResultCacheService searchResultCache;
+    private final RatingSummaryService ratingSummaryService;
+    private final ReviewStorageService reviewStorageService;
+
     @PreAuthorize("hasRole('ADMIN')")
     @PostMapping("/promote")
     @Operation(summary = "Promote a user to Seller", description = "Changes a user's role from CUSTOMER to SELLER by email", security = @SecurityRequirement(name = "bearerAuth"))
@@ -68,4 +77,56 @@ public class AdminController {
 
         return future.join();
     }
-}
\ No newline at end of file
+
+    @PreAuthorize("hasRole('ADMIN')")
+    @GetMapping("/search-cache/stats")
+    @Operation(summary = "Search result cache statistics", description = "Hit, miss, eviction and invalidation counters of the public search result cache", security = @SecurityRequirement(name = "bearerAuth"))
+    public ResponseEntity<?> getSearchCacheStats() {
+        SearchResultCacheService.CacheStats stats = searchResultCache.stats();
+        return ResponseEntity.ok(Map.of(
+                "size", stats.size(),
+                "maxEntries", stats.maxEntries(),
+                "hits", stats.hits(),
+                "misses", stats.misses(),
+                "hitRate", stats.hitRate(),
+                "evictions", stats.evictions(),
+                "invalidations", stats.invalidations()
+        ));
+    }
+
+    @PreAuthorize("hasRole('ADMIN')")
+    @PostMapping("/ratings/rebuild")
+    @Operation(summary = "Rebuild rating summaries", description = "Recomputes every product's rating aggregate from the stored reviews", security = @SecurityRequirement(name = "bearerAuth"))
+    public ResponseEntity<?> rebuildRatingSummaries() {
+        log.info("Rebuilding product rating summaries");
+        try {
+            int products = ratingSummaryService.rebuild();
+            return ResponseEntity.ok(Map.of("message", "Rating summaries rebuilt", "products", products));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.error("Rating summary rebuild interrupted", e);
+            return ResponseEntity.internalServerError().body(Map.of("error", "Rebuild interrupted"));
+        } catch (Exception e) {
+            log.error("Rating summary rebuild failed", e);
+            return ResponseEntity.internalServerError().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    @PreAuthorize("hasRole('ADMIN')")
+    @PostMapping("/reviews/migrate")
+    @Operation(summary = "Migrate reviews to product buckets", description = "Copies reviews from the legacy flat node into per-product buckets. Idempotent; the legacy node is kept until reviews.legacy-read.enabled is turned off", security = @SecurityRequirement(name = "bearerAuth"))
+    public ResponseEntity<?> migrateReviews() {
+        log.info("Migrating legacy reviews into product buckets");
+        try {
+            ReviewStorageService.MigrationResult result = reviewStorageService.migrateLegacyReviews();
+            return ResponseEntity.ok(Map.of("message", "Reviews migrated", "reviews", result.migrated(), "skipped", result.skipped()));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.error("Review migration interrupted", e);
+            return ResponseEntity.internalServerError().body(Map.of("error", "Migration interrupted"));
+        } catch (Exception e) {
+            log.error("Review migration failed", e);
+            return ResponseEntity.internalServerError().body(Map.of("error", e.getMessage()));
+        }
+    }
+}
@@ -72,10 +72,10 @@ public class ProductAnalysisController {
 
         try {
             log.debug("Sending image to Gemini Service for analysis...");
-            // 1. Pass bytes and content type (e.g., image/png) to service
+            // 1. Stream the image and its content type (e.g., image/png) to the service
             String rawResponse = geminiService.analyzeImage(
                     PRODUCT_ANALYSIS_PROMPT,
-                    image.getBytes(),
+                    image.getInputStream(),
                     image.getContentType()
             );
 
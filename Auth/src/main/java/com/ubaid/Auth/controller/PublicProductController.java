@@ -1,8 +1,29 @@
 package com.ubaid.Auth.controller;
 
-import com.google.firebase.database.*;
+import com.ubaid.Auth.dto.ProductFilterResponseDto;
+import com.ubaid.Auth.dto.ProductPageResponseDto;
+import com.ubaid.Auth.dto.ProductSuggestionDto;
 import com.ubaid.Auth.dto.PublicProductResponseDto;
+import com.ubaid.Auth.mapper.PublicProductField;
 import com.ubaid.Auth.model.Product;
+import com.ubaid.Auth.search.ProductFacet;
+import com.ubaid.Auth.search.ProductSortField;
+import com.ubaid.Auth.search.SortKey;
+import com.ubaid.Auth.search.TextTokenizer;
+import com.ubaid.Auth.service.Bm25SearchService;
+import com.ubaid.Auth.service.DescriptionIndexService;
+import com.ubaid.Auth.service.FacetIndexService;
+import com.ubaid.Auth.service.FuzzySearchService;
+import com.ubaid.Auth.service.KeywordIndexService;
+import com.ubaid.Auth.service.ProductCatalogService;
+import com.ubaid.Auth.service.ProductChangeFeedService;
+import com.ubaid.Auth.service.ProductChangeLogService;
+import com.ubaid.Auth.service.ProductJsonCacheService;
+import com.ubaid.Auth.service.ProductNameIndexService;
+import com.ubaid.Auth.service.ProductSortIndexService;
+import com.ubaid.Auth.service.RatingSummaryService;
+import com.ubaid.Auth.service.SearchResultCacheService;
+import com.ubaid.Auth.service.SimilarProductService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.ArraySchema;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -10,15 +31,16 @@ import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
-import java.util.ArrayList;
-import java.util.List;
-import java.util.Map;
-import java.util.concurrent.CompletableFuture;
-import java.util.stream.Collectors;
+import java.util.*;
 
 @RestController
 @RequestMapping("/api/public/products")
@@ -26,36 +48,167 @@ import java.util.stream.Collectors;
 @Slf4j
 public class PublicProductController {
 
+    private static final int MAX_SUGGESTIONS = 50;
+    private static final int DEFAULT_PAGE_SIZE = 20;
+    private static final int MAX_PAGE_SIZE = 100;
+    private static final int EXPORT_FLUSH_INTERVAL = 100;
+    private static final int MAX_BATCH_SIZE = 100;
+    private static final int MAX_SIMILAR = 50;
+    private static final int MAX_CHANGES = 1000;
+
+    private final ProductCatalogService catalogService;
+    private final DescriptionIndexService descriptionIndex;
+    private final KeywordIndexService keywordIndex;
+    private final ProductNameIndexService nameIndex;
+    private final ProductSortIndexService sortIndex;
+    private final FacetIndexService facetIndex;
+    private final FuzzySearchService fuzzySearch;
+    private final Bm25SearchService bm25Search;
+    private final ProductJsonCacheService jsonCache;
+    private final SearchResultCacheService searchCache;
+    private final RatingSummaryService ratingSummaries;
+    private final SimilarProductService similarProducts;
+    private final ProductChangeFeedService changeFeed;
+    private final ProductChangeLogService changeLog;
+
     // --- 1. GET ALL PRODUCTS ---
     @GetMapping
-    public CompletableFuture<ResponseEntity<?>> getAllPublicProducts() {
-        log.info("Fetching all public products request");
-        DatabaseReference ref = FirebaseDatabase.getInstance().getReference("products");
-        CompletableFuture<ResponseEntity<?>> future = new CompletableFuture<>();
-
-        ref.addListenerForSingleValueEvent(new ValueEventListener() {
-            @Override
-            public void onDataChange(DataSnapshot snapshot) {
-                List<PublicProductResponseDto> productList = new ArrayList<>();
-                for (DataSnapshot data : snapshot.getChildren()) {
-                    Product product = data.getValue(Product.class);
-                    if (product != null) {
-                        productList.add(mapToDto(product));
-                    }
+    @Operation(summary = "List public products", description = "Returns the full catalog, or one page of it when limit or cursor is given")
+    @ApiResponse(responseCode = "200", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ProductPageResponseDto.class)))
+    public ResponseEntity<?> getAllPublicProducts(
+            @RequestParam(value = "limit", required = false) Integer limit,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "sort", defaultValue = "id") String sort,
+            @RequestParam(value = "order", required = false) String order,
+            @RequestParam(value = "fields", required = false) List<String> fields
+    ) {
+        log.info("Fetching all public products request (limit: {}, sort: {}, order: {})", limit, sort, order);
+        Set<PublicProductField> selected = parseFields(fields);
+        if (!catalogService.isReady()) {
+            return catalogNotReady();
+        }
+
+        ProductSortField sortField;
+        boolean descending;
+        SortKey after;
+        try {
+            sortField = ProductSortField.fromParam(sort);
+            descending = resolveDescending(order, sortField);
+            after = cursor != null ? SortKey.fromCursor(cursor, sortField, descending) : null;
+        } catch (IllegalArgumentException e) {
+            log.warn("Invalid listing parameters: {}", e.getMessage());
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+
+        // Legacy behaviour: no paging parameters returns everything in one array
+        if (limit == null && cursor == null) {
+            List<SortKey> keys = sortIndex.page(sortField, descending, null, Integer.MAX_VALUE);
+            List<Product> productList = resolveProducts(keys.stream().map(SortKey::pId).toList());
+            log.info("Retrieved {} public products", productList.size());
+            return jsonStream(out -> jsonCache.writeArray(out, productList, selected));
+        }
+
+        int pageSize = Math.max(1, Math.min(limit != null ? limit : DEFAULT_PAGE_SIZE, MAX_PAGE_SIZE));
+        // Fetch one extra key to learn whether another page exists
+        List<SortKey> keys = sortIndex.page(sortField, descending, after, pageSize + 1);
+        boolean hasMore = keys.size() > pageSize;
+        if (hasMore) {
+            keys = keys.subList(0, pageSize);
+        }
+
+        // Same shape as ProductPageResponseDto, assembled from cached product JSON
+        List<Product> products = resolveProducts(keys.stream().map(SortKey::pId).toList());
+        Map<String, Object> pageFields = new LinkedHashMap<>();
+        pageFields.put("nextCursor", hasMore ? keys.get(keys.size() - 1).toCursor(sortField, descending) : null);
+        pageFields.put("sort", sortField.getParamName());
+        pageFields.put("order", descending ? "desc" : "asc");
+        pageFields.put("limit", pageSize);
+        log.info("Retrieved page of {} public products (more: {})", products.size(), hasMore);
+        return jsonStream(out -> jsonCache.writeObject(out, pageFields, "products", products, selected));
+    }
+
+    // --- 1b. STREAMING EXPORT ---
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(summary = "Export the catalog as NDJSON", description = "Streams one product per line; memory use does not grow with catalog size")
+    public ResponseEntity<StreamingResponseBody> exportPublicProducts(
+            @RequestParam(value = "fields", required = false) List<String> fields
+    ) {
+        log.info("Streaming public product export request");
+        Set<PublicProductField> selected = parseFields(fields);
+        if (!catalogService.isReady()) {
+            // StreamingResponseBody responses cannot carry an error body, so surface the status directly
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Product catalog is loading, please retry shortly");
+        }
+
+        StreamingResponseBody body = outputStream -> {
+            int count = 0;
+            for (Product product : catalogService.getAllProducts()) {
+                outputStream.write(jsonCache.json(product, selected));
+                outputStream.write('\n');
+                if (++count % EXPORT_FLUSH_INTERVAL == 0) {
+                    outputStream.flush();
                 }
-                log.info("Retrieved {} public products", productList.size());
-                future.complete(ResponseEntity.ok(productList));
             }
+            outputStream.flush();
+            log.info("Streamed {} public products", count);
+        };
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
 
-            @Override
-            public void onCancelled(DatabaseError error) {
-                log.error("Error fetching public products: {}", error.getMessage());
-                future.complete(ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                        .body("Error fetching data: " + error.getMessage()));
+    // --- 1c. CHANGE STREAM (SSE) ---
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(summary = "Stream catalog changes", description = "Server-Sent Events: added, updated and deleted product events. "
+            + "Reconnect with Last-Event-ID to resume; a resync event means the gap was too large and the client should reload.")
+    @ApiResponse(responseCode = "503", description = "Subscriber limit reached on this node")
+    public SseEmitter streamProductChanges(
+            @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId
+    ) {
+        log.info("Opening product change stream (Last-Event-ID: {})", lastEventId);
+        SseEmitter emitter = changeFeed.subscribe(lastEventId);
+        if (emitter == null) {
+            log.warn("Product change stream rejected: {} subscribers already connected", changeFeed.subscriberCount());
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Too many stream subscribers, please retry shortly");
+        }
+        return emitter;
+    }
+
+    // --- 1d. DELTA SYNC ---
+    @GetMapping("/changes")
+    @Operation(summary = "Products changed since a sequence", description = "Upserts and deletions after 'since', oldest first. "
+            + "Pass nextSince on the next call. resync=true means 'since' is too old: reload the full catalog, then continue from nextSince.")
+    public ResponseEntity<?> getProductChanges(
+            @RequestParam("since") long since,
+            @RequestParam(value = "limit", defaultValue = "500") int limit,
+            @RequestParam(value = "fields", required = false) List<String> fields
+    ) {
+        log.info("Delta sync request since sequence {}", since);
+        Set<PublicProductField> selected = parseFields(fields);
+        if (!catalogService.isReady()) {
+            return catalogNotReady();
+        }
+
+        ProductChangeLogService.ChangeBatch batch = changeLog.changesSince(since, Math.max(1, Math.min(limit, MAX_CHANGES)));
+        List<Product> upserts = new ArrayList<>();
+        List<String> deleted = new ArrayList<>();
+        for (ProductChangeLogService.Change change : batch.changes()) {
+            if (change.deleted()) {
+                deleted.add(change.pId());
+            } else {
+                upserts.add(change.product());
             }
-        });
+        }
 
-        return future;
+        Map<String, Object> changeFields = new LinkedHashMap<>();
+        changeFields.put("since", since);
+        changeFields.put("nextSince", batch.nextSince());
+        changeFields.put("hasMore", batch.hasMore());
+        changeFields.put("resync", batch.resync());
+        changeFields.put("deleted", deleted);
+        log.info("Delta sync since {}: {} upserts, {} deletions, resync: {}", since, upserts.size(), deleted.size(), batch.resync());
+        return jsonStream(out -> jsonCache.writeObject(out, changeFields, "products", upserts, selected));
     }
 
     // --- 2. GET PRODUCT BY ID ---
@@ -63,171 +216,331 @@ public class PublicProductController {
     @Operation(summary = "Get a single product by ID")
     @ApiResponse(responseCode = "200", content = @Content(mediaType = "application/json", schema = @Schema(implementation = PublicProductResponseDto.class)))
     @ApiResponse(responseCode = "404", description = "Product not found")
-    public CompletableFuture<ResponseEntity<?>> getProductById(@PathVariable String pId) {
+    public ResponseEntity<?> getProductById(
+            @PathVariable String pId,
+            @RequestParam(value = "fields", required = false) List<String> fields
+    ) {
         log.info("Fetching public product by ID: {}", pId);
-        DatabaseReference ref = FirebaseDatabase.getInstance().getReference("products").child(pId);
-        CompletableFuture<ResponseEntity<?>> future = new CompletableFuture<>();
-
-        ref.addListenerForSingleValueEvent(new ValueEventListener() {
-            @Override
-            public void onDataChange(DataSnapshot snapshot) {
-                Product product = snapshot.getValue(Product.class);
-                if (product != null) {
-                    log.debug("Product found: {}", product.getpName());
-                    future.complete(ResponseEntity.ok(mapToDto(product)));
-                } else {
-                    log.warn("Product not found with ID: {}", pId);
-                    future.complete(ResponseEntity.status(HttpStatus.NOT_FOUND)
-                            .body(Map.of("error", "Product not found with ID: " + pId)));
-                }
-            }
+        Set<PublicProductField> selected = parseFields(fields);
+        if (!catalogService.isReady()) {
+            return catalogNotReady();
+        }
 
-            @Override
-            public void onCancelled(DatabaseError error) {
-                log.error("Database error fetching product {}: {}", pId, error.getMessage());
-                future.complete(ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                        .body(Map.of("error", "Error fetching product: " + error.getMessage())));
-            }
-        });
+        Product product = catalogService.getProduct(pId);
+        if (product == null) {
+            log.warn("Product not found with ID: {}", pId);
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                    .body(Map.of("error", "Product not found with ID: " + pId));
+        }
+        log.debug("Product found: {}", product.getpName());
+        return jsonResponse(jsonCache.json(product, selected));
+    }
+
+    // --- 2a. SIMILAR PRODUCTS ---
+    @GetMapping("/{pId}/similar")
+    @Operation(summary = "Products similar to a product", description = "Nearest neighbours by keyword, category and brand overlap (MinHash LSH)")
+    @ApiResponse(responseCode = "200", content = @Content(mediaType = "application/json", array = @ArraySchema(schema = @Schema(implementation = PublicProductResponseDto.class))))
+    @ApiResponse(responseCode = "404", description = "Product not found")
+    public ResponseEntity<?> getSimilarProducts(
+            @PathVariable String pId,
+            @RequestParam(value = "limit", defaultValue = "10") int limit,
+            @RequestParam(value = "fields", required = false) List<String> fields
+    ) {
+        log.info("Fetching products similar to {}", pId);
+        Set<PublicProductField> selected = parseFields(fields);
+        if (!catalogService.isReady()) {
+            return catalogNotReady();
+        }
+        if (catalogService.getProduct(pId) == null) {
+            log.warn("Product not found with ID: {}", pId);
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                    .body(Map.of("error", "Product not found with ID: " + pId));
+        }
 
-        return future;
+        int safeLimit = Math.max(1, Math.min(limit, MAX_SIMILAR));
+        List<Product> similar = resolveProducts(similarProducts.similar(pId, safeLimit));
+        log.debug("Found {} products similar to {}", similar.size(), pId);
+        return jsonStream(out -> jsonCache.writeArray(out, similar, selected));
+    }
+
+    // --- 2b. BATCH GET BY IDS ---
+    @PostMapping("/batch")
+    @Operation(summary = "Get many products by ID", description = "Returns one entry per requested ID, in request order, with found=false for unknown IDs")
+    @ApiResponse(responseCode = "200", description = "Array of {pId, found, product}")
+    @ApiResponse(responseCode = "400", description = "Empty or oversized ID list")
+    public ResponseEntity<?> getProductsByIds(
+            @RequestBody List<String> pIds,
+            @RequestParam(value = "fields", required = false) List<String> fields
+    ) {
+        log.info("Batch fetching {} public products", pIds != null ? pIds.size() : 0);
+        Set<PublicProductField> selected = parseFields(fields);
+        if (pIds == null || pIds.isEmpty()) {
+            return ResponseEntity.badRequest().body(Map.of("error", "At least one product ID is required"));
+        }
+        if (pIds.size() > MAX_BATCH_SIZE) {
+            return ResponseEntity.badRequest().body(Map.of("error", "At most " + MAX_BATCH_SIZE + " product IDs per request"));
+        }
+
+        try {
+            Map<String, Product> found = catalogService.getProducts(pIds);
+            log.info("Batch fetch resolved {}/{} products", found.size(), pIds.size());
+            return jsonStream(out -> jsonCache.writeBatch(out, pIds, found, selected));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.error("Batch product fetch interrupted", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(Map.of("error", "Batch fetch interrupted"));
+        }
     }
 
     // --- 3. SEARCH BY NAME ---
     @GetMapping("/search")
-    public CompletableFuture<ResponseEntity<?>> searchProductByName(@RequestParam("name") String queryName) {
-        log.info("Searching public products by name query: '{}'", queryName);
-        DatabaseReference ref = FirebaseDatabase.getInstance().getReference("products");
-        CompletableFuture<ResponseEntity<?>> future = new CompletableFuture<>();
-
-        Query query = ref.orderByChild("pName")
-                .startAt(queryName)
-                .endAt(queryName + "\uf8ff");
-
-        query.addListenerForSingleValueEvent(new ValueEventListener() {
-            @Override
-            public void onDataChange(DataSnapshot snapshot) {
-                List<PublicProductResponseDto> searchResults = new ArrayList<>();
-                for (DataSnapshot data : snapshot.getChildren()) {
-                    Product product = data.getValue(Product.class);
-                    if (product != null) {
-                        searchResults.add(mapToDto(product));
-                    }
-                }
-                log.info("Found {} products matching name '{}'", searchResults.size(), queryName);
-                future.complete(ResponseEntity.ok(searchResults));
-            }
+    @Operation(summary = "Search products by name", description = "Case-insensitive name prefix match; fuzzy=true tolerates typos in name and brand words")
+    public ResponseEntity<?> searchProductByName(
+            @RequestParam("name") String queryName,
+            @RequestParam(value = "fuzzy", defaultValue = "false") boolean fuzzy,
+            @RequestParam(value = "fields", required = false) List<String> fields
+    ) {
+        log.info("Searching public products by name query: '{}' (fuzzy: {})", queryName, fuzzy);
+        Set<PublicProductField> selected = parseFields(fields);
+        if (!catalogService.isReady()) {
+            return catalogNotReady();
+        }
 
-            @Override
-            public void onCancelled(DatabaseError error) {
-                log.error("Error searching by name: {}", error.getMessage());
-                future.complete(ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                        .body("Search error: " + error.getMessage()));
-            }
-        });
-
-        return future;
+        byte[] json = searchCache.get(cacheEndpoint(fuzzy ? "name:fuzzy" : "name", selected), SearchResultCacheService.normalizeQuery(queryName),
+                catalogService.getVersion(), ratingSummaries.getVersion(), () -> {
+                    List<Product> searchResults = resolveProducts(fuzzy
+                            ? fuzzySearch.searchNames(queryName)
+                            : nameIndex.searchByName(queryName));
+                    log.info("Found {} products matching name '{}'", searchResults.size(), queryName);
+                    return jsonCache.jsonArray(searchResults, selected);
+                });
+        return jsonResponse(json);
     }
 
     // --- 4. SEARCH BY DESCRIPTION ---
     @GetMapping("/search-description")
     @Operation(summary = "Search products by description")
     @ApiResponse(responseCode = "200", content = @Content(mediaType = "application/json", array = @ArraySchema(schema = @Schema(implementation = PublicProductResponseDto.class))))
-    public CompletableFuture<ResponseEntity<?>> searchProductsByDescription(@RequestParam("query") String query) {
+    public ResponseEntity<?> searchProductsByDescription(
+            @RequestParam("query") String query,
+            @RequestParam(value = "fields", required = false) List<String> fields
+    ) {
         log.info("Searching public products by description query: '{}'", query);
-        DatabaseReference ref = FirebaseDatabase.getInstance().getReference("products");
-        CompletableFuture<ResponseEntity<?>> future = new CompletableFuture<>();
+        Set<PublicProductField> selected = parseFields(fields);
+        if (!catalogService.isReady()) {
+            return catalogNotReady();
+        }
+
+        byte[] json = searchCache.get(cacheEndpoint("description", selected), SearchResultCacheService.normalizeQuery(query),
+                catalogService.getVersion(), ratingSummaries.getVersion(), () -> {
+                    List<Product> matchingProducts = resolveProducts(descriptionIndex.search(query));
+                    log.info("Found {} products matching description query '{}'", matchingProducts.size(), query);
+                    return jsonCache.jsonArray(matchingProducts, selected);
+                });
+        return jsonResponse(json);
+    }
 
-        String normalizedQuery = query.toLowerCase().trim();
+    // --- 5. SEARCH BY KEYWORDS ---
+    @GetMapping("/search-keywords")
+    @Operation(summary = "Search products by keywords", description = "Substring match on product keywords; fuzzy=true tolerates typos instead")
+    public ResponseEntity<?> searchProductsByKeywords(
+            @RequestParam("keywords") List<String> searchKeywords,
+            @RequestParam(value = "fuzzy", defaultValue = "false") boolean fuzzy,
+            @RequestParam(value = "fields", required = false) List<String> fields
+    ) {
+        log.info("Searching public products by keywords: {} (fuzzy: {})", searchKeywords, fuzzy);
+        Set<PublicProductField> selected = parseFields(fields);
+        if (!catalogService.isReady()) {
+            return catalogNotReady();
+        }
 
-        ref.addListenerForSingleValueEvent(new ValueEventListener() {
-            @Override
-            public void onDataChange(DataSnapshot snapshot) {
-                List<PublicProductResponseDto> matchingProducts = new ArrayList<>();
+        byte[] json = searchCache.get(cacheEndpoint(fuzzy ? "keywords:fuzzy" : "keywords", selected), SearchResultCacheService.normalizeKeywords(searchKeywords),
+                catalogService.getVersion(), ratingSummaries.getVersion(), () -> {
+                    List<Product> matchingProducts = resolveProducts(fuzzy
+                            ? fuzzySearch.searchKeywords(searchKeywords)
+                            : keywordIndex.search(searchKeywords));
+                    log.info("Found {} products matching keywords", matchingProducts.size());
+                    return jsonCache.jsonArray(matchingProducts, selected);
+                });
+        return jsonResponse(json);
+    }
 
-                for (DataSnapshot data : snapshot.getChildren()) {
-                    Product product = data.getValue(Product.class);
-                    if (product != null &&
-                            product.getpDescription() != null &&
-                            product.getpDescription().toLowerCase().contains(normalizedQuery)) {
+    // --- 5b. RELEVANCE-RANKED QUERY ---
+    @GetMapping("/query")
+    @Operation(summary = "Relevance-ranked product search", description = "BM25 over name, brand, description, category and keywords with per-field boosts")
+    public ResponseEntity<?> queryProducts(
+            @RequestParam("q") String query,
+            @RequestParam(value = "limit", defaultValue = "20") int limit,
+            @RequestParam(value = "fields", required = false) List<String> fields
+    ) {
+        log.info("Relevance query on public products: '{}'", query);
+        Set<PublicProductField> selected = parseFields(fields);
+        if (!catalogService.isReady()) {
+            return catalogNotReady();
+        }
 
-                        matchingProducts.add(mapToDto(product));
-                    }
-                }
-                log.info("Found {} products matching description query '{}'", matchingProducts.size(), query);
-                future.complete(ResponseEntity.ok(matchingProducts));
-            }
+        int safeLimit = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        List<Bm25SearchService.ScoredProduct> ranked = bm25Search.search(query, safeLimit);
+        List<Product> products = resolveProducts(ranked.stream().map(Bm25SearchService.ScoredProduct::pId).toList());
+        log.info("Relevance query '{}' returned {} products", query, products.size());
+        return jsonStream(out -> jsonCache.writeArray(out, products, selected));
+    }
 
-            @Override
-            public void onCancelled(DatabaseError error) {
-                log.error("Error searching by description: {}", error.getMessage());
-                future.complete(ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                        .body(Map.of("error", error.getMessage())));
+    // --- 6. AUTOCOMPLETE SUGGESTIONS ---
+    @GetMapping("/suggest")
+    @Operation(summary = "Suggest products by name or brand prefix", description = "Case-insensitive completions ranked by credit score")
+    @ApiResponse(responseCode = "200", content = @Content(mediaType = "application/json", array = @ArraySchema(schema = @Schema(implementation = ProductSuggestionDto.class))))
+    public ResponseEntity<?> suggestProducts(
+            @RequestParam("prefix") String prefix,
+            @RequestParam(value = "limit", defaultValue = "10") int limit
+    ) {
+        log.debug("Suggesting products for prefix: '{}'", prefix);
+        if (!catalogService.isReady()) {
+            return catalogNotReady();
+        }
+
+        int safeLimit = Math.max(1, Math.min(limit, MAX_SUGGESTIONS));
+        List<ProductSuggestionDto> suggestions = new ArrayList<>();
+        for (String pId : nameIndex.suggest(prefix, safeLimit)) {
+            Product product = catalogService.getProduct(pId);
+            if (product != null) {
+                suggestions.add(ProductSuggestionDto.builder()
+                        .pId(product.getpId())
+                        .pName(product.getpName())
+                        .pBrandName(product.getpBrandName())
+                        .pCreditScore(product.getpCreditScore())
+                        .build());
             }
-        });
+        }
+        return ResponseEntity.ok(suggestions);
+    }
 
-        return future;
+    // --- 7. FACETED FILTER ---
+    @GetMapping("/filter")
+    @Operation(summary = "Filter products by facets", description = "Values within a facet are OR-ed, facets are AND-ed. Returns matching products and per-value counts.")
+    @ApiResponse(responseCode = "200", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ProductFilterResponseDto.class)))
+    public ResponseEntity<?> filterProducts(
+            @RequestParam(value = "category", required = false) List<String> categories,
+            @RequestParam(value = "subCategory", required = false) List<String> subCategories,
+            @RequestParam(value = "brand", required = false) List<String> brands,
+            @RequestParam(value = "priceBand", required = false) List<String> priceBands,
+            @RequestParam(value = "offset", defaultValue = "0") int offset,
+            @RequestParam(value = "limit", defaultValue = "20") int limit,
+            @RequestParam(value = "fields", required = false) List<String> fields
+    ) {
+        log.info("Filtering public products: category={}, subCategory={}, brand={}, priceBand={}",
+                categories, subCategories, brands, priceBands);
+        Set<PublicProductField> selected = parseFields(fields);
+        if (!catalogService.isReady()) {
+            return catalogNotReady();
+        }
+
+        Map<ProductFacet, Set<String>> selections = new EnumMap<>(ProductFacet.class);
+        selections.put(ProductFacet.CATEGORY, normalizeAll(categories));
+        selections.put(ProductFacet.SUB_CATEGORY, normalizeAll(subCategories));
+        selections.put(ProductFacet.BRAND, normalizeAll(brands));
+        selections.put(ProductFacet.PRICE_BAND, normalizeAll(priceBands));
+
+        int pageSize = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        FacetIndexService.FacetResult result = facetIndex.filter(selections, Math.max(0, offset), pageSize);
+
+        Map<String, Map<String, Integer>> facetCounts = new LinkedHashMap<>();
+        result.counts().forEach((facet, counts) -> facetCounts.put(facet.getParamName(), counts));
+
+        // Same shape as ProductFilterResponseDto, assembled from cached product JSON
+        Map<String, Object> filterFields = new LinkedHashMap<>();
+        filterFields.put("total", result.total());
+        filterFields.put("facets", facetCounts);
+        log.info("Facet filter matched {} products", result.total());
+        List<Product> products = resolveProducts(result.productIds());
+        return jsonStream(out -> jsonCache.writeObject(out, filterFields, "products", products, selected));
     }
 
-    // --- 5. SEARCH BY KEYWORDS ---
-    @GetMapping("/search-keywords")
-    public CompletableFuture<ResponseEntity<?>> searchProductsByKeywords(@RequestParam("keywords") List<String> searchKeywords) {
-        log.info("Searching public products by keywords: {}", searchKeywords);
-        DatabaseReference ref = FirebaseDatabase.getInstance().getReference("products");
-        CompletableFuture<ResponseEntity<?>> future = new CompletableFuture<>();
-
-        List<String> normalizedKeywords = searchKeywords.stream()
-                .map(String::toLowerCase)
-                .map(String::trim)
-                .collect(Collectors.toList());
-
-        ref.addListenerForSingleValueEvent(new ValueEventListener() {
-            @Override
-            public void onDataChange(DataSnapshot snapshot) {
-                List<PublicProductResponseDto> matchingProducts = new ArrayList<>();
-
-                for (DataSnapshot data : snapshot.getChildren()) {
-                    Product product = data.getValue(Product.class);
-                    if (product != null && product.getKeywords() != null) {
-                        boolean matchFound = product.getKeywords().stream()
-                                .map(String::toLowerCase)
-                                .anyMatch(prodKeyword -> normalizedKeywords.stream()
-                                        .anyMatch(prodKeyword::contains));
-
-                        if (matchFound) {
-                            matchingProducts.add(mapToDto(product));
-                        }
-                    }
+    // --- 8. CATALOG STATUS ---
+    @GetMapping("/catalog-status")
+    @Operation(summary = "Readiness and version of the in-memory product catalog",
+            description = "ready=true with synced=false means the catalog is served from the disk snapshot while Firebase catches up")
+    public ResponseEntity<?> getCatalogStatus() {
+        return ResponseEntity.ok(Map.of(
+                "ready", catalogService.isReady(),
+                "synced", catalogService.isSynced(),
+                "version", catalogService.getVersion(),
+                "productCount", catalogService.size()
+        ));
+    }
+
+    // --- HELPER METHODS ---
+    private ResponseEntity<?> catalogNotReady() {
+        log.warn("Public product request rejected: catalog is still loading");
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "5")
+                .body(Map.of("error", "Product catalog is loading, please retry shortly"));
+    }
+
+    private static boolean resolveDescending(String order, ProductSortField sortField) {
+        if (order == null || order.isBlank()) {
+            return sortField.isDescendingByDefault();
+        }
+        if (order.equalsIgnoreCase("desc")) {
+            return true;
+        }
+        if (order.equalsIgnoreCase("asc")) {
+            return false;
+        }
+        throw new IllegalArgumentException("Unsupported order: " + order);
+    }
+
+    // fields= is accepted on every product endpoint, so reject bad names the same way everywhere
+    private static Set<PublicProductField> parseFields(List<String> fields) {
+        try {
+            return PublicProductField.parse(fields);
+        } catch (IllegalArgumentException e) {
+            log.warn("Invalid fields parameter: {}", e.getMessage());
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+    }
+
+    // Projected responses are cached separately from full ones
+    private static String cacheEndpoint(String endpoint, Set<PublicProductField> fields) {
+        return fields == null ? endpoint : endpoint + fields;
+    }
+
+    private static Set<String> normalizeAll(List<String> values) {
+        Set<String> normalized = new HashSet<>();
+        if (values != null) {
+            for (String value : values) {
+                String key = TextTokenizer.normalize(value);
+                if (!key.isEmpty()) {
+                    normalized.add(key);
                 }
-                log.info("Found {} products matching keywords", matchingProducts.size());
-                future.complete(ResponseEntity.ok(matchingProducts));
             }
+        }
+        return normalized;
+    }
 
-            @Override
-            public void onCancelled(DatabaseError error) {
-                log.error("Error searching by keywords: {}", error.getMessage());
-                future.complete(ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                        .body(Map.of("error", "Search error: " + error.getMessage())));
+    private List<Product> resolveProducts(List<String> productIds) {
+        List<Product> products = new ArrayList<>(productIds.size());
+        for (String pId : productIds) {
+            Product product = catalogService.getProduct(pId);
+            if (product != null) {
+                products.add(product);
             }
-        });
-
-        return future;
-    }
-
-    // --- HELPER METHOD ---
-    private PublicProductResponseDto mapToDto(Product product) {
-        return PublicProductResponseDto.builder()
-                .pId(product.getpId())
-                .pName(product.getpName())
-                .pDescription(product.getpDescription())
-                .pBrandName(product.getpBrandName())
-                .pImages(product.getpImages() != null ? product.getpImages() : new ArrayList<>())
-                .pSellingPrice(product.getpSellingPrice())
-                .pMrp(product.getpMrp())
-                .category(product.getCategory())
-                .subCategory(product.getSubCategory())
-                .keywords(product.getKeywords())
-                .pCreditScore(product.getpCreditScore()) // Added for sorting
-                .build();
-    }
-}
\ No newline at end of file
+        }
+        return products;
+    }
+
+    private static ResponseEntity<byte[]> jsonResponse(byte[] json) {
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(json);
+    }
+
+    /**
+     * JSON response written straight to the servlet output, so cached product encodings are not copied
+     */
+    private static ResponseEntity<StreamingResponseBody> jsonStream(StreamingResponseBody body) {
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(body);
+    }
+}
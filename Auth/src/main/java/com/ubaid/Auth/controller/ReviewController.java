@@ -1,11 +1,15 @@
 package com.ubaid.Auth.controller;
 
-import com.google.firebase.database.*;
 import com.google.gson.Gson;
+import com.ubaid.Auth.dto.RatingSummaryDto;
 import com.ubaid.Auth.dto.ReviewRequestDto;
+import com.ubaid.Auth.mapper.FirebaseKeys;
+import com.ubaid.Auth.model.RatingSummary;
 import com.ubaid.Auth.model.Review;
 import com.ubaid.Auth.model.UserEntity;
-import com.ubaid.Auth.service.CloudinaryService;
+import com.ubaid.Auth.service.ImageUploadService;
+import com.ubaid.Auth.service.RatingSummaryService;
+import com.ubaid.Auth.service.ReviewStorageService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.ArraySchema;
@@ -31,7 +35,12 @@ import java.util.concurrent.CompletableFuture;
 @Slf4j
 public class ReviewController {
 
-    private final CloudinaryService cloudinaryService;
+    private static final int MAX_SUMMARY_IDS = 100;
+    private static final int MAX_REVIEW_PAGE = 100;
+
+    private final ImageUploadService imageUploadService;
+    private final RatingSummaryService ratingSummaryService;
+    private final ReviewStorageService reviewStorageService;
 
     // --- 1. ADD REVIEW ---
     @PostMapping(value = "/add", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
@@ -57,24 +66,24 @@ public class ReviewController {
             Gson gson = new Gson();
             ReviewRequestDto requestDto = gson.fromJson(reviewJson, ReviewRequestDto.class);
 
-            if (requestDto.getRating() < 0 || requestDto.getRating() > 5) {
+            if (!RatingSummary.isValidRating(requestDto.getRating())) {
                 log.warn("Invalid rating provided: {}", requestDto.getRating());
-                return ResponseEntity.badRequest().body("Rating must be between 0 and 5");
+                return ResponseEntity.badRequest().body(
+                        "Rating must be between " + RatingSummary.MIN_RATING + " and " + RatingSummary.MAX_RATING);
             }
             if (requestDto.getProductId() == null || requestDto.getProductId().isEmpty()) {
                 log.warn("Missing product ID in review request");
                 return ResponseEntity.badRequest().body("Product ID is required");
             }
+            if (!FirebaseKeys.isValid(requestDto.getProductId())) {
+                log.warn("Invalid product ID in review request: {}", requestDto.getProductId());
+                return ResponseEntity.badRequest().body(Map.of("error", "Invalid product ID"));
+            }
 
             List<String> uploadedImageUrls = new ArrayList<>();
             if (files != null && !files.isEmpty()) {
                 log.debug("Uploading {} review images...", files.size());
-                for (MultipartFile file : files) {
-                    if (!file.isEmpty()) {
-                        String url = cloudinaryService.uploadImage(file, "reviews");
-                        uploadedImageUrls.add(url);
-                    }
-                }
+                uploadedImageUrls = imageUploadService.uploadAll(files, "reviews");
             }
 
             Review review = new Review();
@@ -87,13 +96,11 @@ public class ReviewController {
             review.setImageUrls(uploadedImageUrls);
             review.setTimestamp(System.currentTimeMillis());
 
-            DatabaseReference ref = FirebaseDatabase.getInstance().getReference("reviews");
-            String reviewId = ref.push().getKey();
-            review.setId(reviewId);
+            // Two separate writes: a review saved without its rating is repaired by the ratings rebuild
+            reviewStorageService.save(review);
+            ratingSummaryService.recordRating(review.getProductId(), review.getRating());
 
-            ref.child(reviewId).setValueAsync(review);
-
-            log.info("Review added successfully with ID: {} for Product: {}", reviewId, review.getProductId());
+            log.info("Review added successfully with ID: {} for Product: {}", review.getId(), review.getProductId());
             return ResponseEntity.ok(Map.of("message", "Review added successfully", "review", review));
 
         } catch (Exception e) {
@@ -105,38 +112,79 @@ public class ReviewController {
 
     // --- 2. GET REVIEWS FOR PRODUCT ---
     @GetMapping("/product/{productId}")
-    @Operation(summary = "Get reviews for a product", description = "Fetches all reviews for a specific product ID")
+    @Operation(summary = "Get reviews for a product", description = "Reviews of a product ID, newest first. Without limit, returns all reviews as an array; "
+            + "with limit, returns one page as {reviews, nextBefore}, where nextBefore is the cursor for the next older page (null on the last page)")
     @ApiResponse(
             responseCode = "200",
             description = "List of reviews",
             content = @Content(array = @ArraySchema(schema = @Schema(implementation = Review.class)))
     )
-    public CompletableFuture<ResponseEntity<?>> getProductReviews(@PathVariable String productId) {
-        log.info("Fetching reviews for product ID: {}", productId);
-        DatabaseReference ref = FirebaseDatabase.getInstance().getReference("reviews");
-        CompletableFuture<ResponseEntity<?>> future = new CompletableFuture<>();
-
-        Query query = ref.orderByChild("productId").equalTo(productId);
-
-        query.addListenerForSingleValueEvent(new ValueEventListener() {
-            @Override
-            public void onDataChange(DataSnapshot snapshot) {
-                List<Review> reviewList = new ArrayList<>();
-                for (DataSnapshot data : snapshot.getChildren()) {
-                    Review review = data.getValue(Review.class);
-                    if (review != null) reviewList.add(review);
-                }
-                reviewList.sort((r1, r2) -> Long.compare(r2.getTimestamp(), r1.getTimestamp()));
-                log.info("Retrieved {} reviews for product {}", reviewList.size(), productId);
-                future.complete(ResponseEntity.ok(reviewList));
-            }
-            @Override
-            public void onCancelled(DatabaseError error) {
-                log.error("Database error fetching reviews: {}", error.getMessage());
-                future.complete(ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                        .body("Error fetching reviews: " + error.getMessage()));
+    public CompletableFuture<ResponseEntity<?>> getProductReviews(
+            @PathVariable String productId,
+            @Parameter(description = "Page size, up to " + MAX_REVIEW_PAGE) @RequestParam(required = false) Integer limit,
+            @Parameter(description = "Review ID cursor: only reviews older than this one") @RequestParam(required = false) String before) {
+        log.info("Fetching reviews for product ID: {} (limit: {}, before: {})", productId, limit, before);
+        if (limit != null && (limit < 1 || limit > MAX_REVIEW_PAGE)) {
+            return CompletableFuture.completedFuture(ResponseEntity.badRequest()
+                    .body(Map.of("error", "limit must be between 1 and " + MAX_REVIEW_PAGE)));
+        }
+        // Both end up in a Firebase path or key query, which rejects keys it cannot address
+        if (!FirebaseKeys.isValid(productId)) {
+            log.warn("Invalid product ID for reviews: {}", productId);
+            return CompletableFuture.completedFuture(ResponseEntity.badRequest()
+                    .body(Map.of("error", "Invalid product ID")));
+        }
+        if (before != null && !FirebaseKeys.isValid(before)) {
+            return CompletableFuture.completedFuture(ResponseEntity.badRequest()
+                    .body(Map.of("error", "Invalid before cursor")));
+        }
+
+        return reviewStorageService.page(productId, limit, before)
+                .<ResponseEntity<?>>thenApply(page -> {
+                    log.info("Retrieved {} reviews for product {}", page.reviews().size(), productId);
+                    if (limit == null) {
+                        return ResponseEntity.ok(page.reviews());
+                    }
+                    Map<String, Object> body = new LinkedHashMap<>();
+                    body.put("reviews", page.reviews());
+                    body.put("nextBefore", page.nextBefore());
+                    return ResponseEntity.ok(body);
+                })
+                .exceptionally(e -> {
+                    Throwable cause = e.getCause() != null ? e.getCause() : e;
+                    log.error("Database error fetching reviews: {}", cause.getMessage());
+                    return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                            .body("Error fetching reviews: " + cause.getMessage());
+                });
+    }
+
+    // --- 3. RATING SUMMARIES ---
+    @GetMapping("/summary")
+    @Operation(summary = "Rating summaries for many products", description = "Review count, average and 0-5 star histogram per product ID, in request order")
+    @ApiResponse(
+            responseCode = "200",
+            description = "List of rating summaries",
+            content = @Content(array = @ArraySchema(schema = @Schema(implementation = RatingSummaryDto.class)))
+    )
+    public ResponseEntity<?> getRatingSummaries(@RequestParam("ids") List<String> productIds) {
+        log.info("Fetching rating summaries for {} products", productIds.size());
+        if (productIds.isEmpty() || productIds.size() > MAX_SUMMARY_IDS) {
+            return ResponseEntity.badRequest().body(Map.of("error", "Between 1 and " + MAX_SUMMARY_IDS + " product IDs are required"));
+        }
+
+        List<RatingSummaryDto> summaries = new ArrayList<>(productIds.size());
+        for (String productId : productIds) {
+            RatingSummary summary = ratingSummaryService.get(productId);
+            if (summary == null) {
+                summary = new RatingSummary();
             }
-        });
-        return future;
+            summaries.add(RatingSummaryDto.builder()
+                    .productId(productId)
+                    .count(summary.getCount())
+                    .average(summary.average())
+                    .histogram(summary.getHistogram())
+                    .build());
+        }
+        return ResponseEntity.ok(summaries);
     }
-}
\ No newline at end of file
+}
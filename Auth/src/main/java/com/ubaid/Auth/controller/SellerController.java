@@ -3,8 +3,12 @@ package com.ubaid.Auth.controller;
 import com.google.firebase.database.*;
 import com.google.gson.Gson;
 import com.ubaid.Auth.dto.SellerProductResponseDto;
+import com.ubaid.Auth.mapper.FirebaseSnapshotMapper;
 import com.ubaid.Auth.model.Product;
 import com.ubaid.Auth.service.CloudinaryService;
+import com.ubaid.Auth.service.ImageDeletionOutbox;
+import com.ubaid.Auth.service.ImageUploadService;
+import com.ubaid.Auth.service.ProductChangeLogService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
@@ -32,6 +36,9 @@ import java.util.concurrent.ExecutionException;
 public class SellerController {
 
     private final CloudinaryService cloudinaryService;
+    private final ImageUploadService imageUploadService;
+    private final ImageDeletionOutbox imageDeletionOutbox;
+    private final ProductChangeLogService changeLog;
 
     // --- CREATE PRODUCT ---
     @PreAuthorize("hasRole('SELLER')")
@@ -72,14 +79,13 @@ public class SellerController {
                 log.debug("Uploading {} new product images...", files.size());
                 for (MultipartFile file : files) {
                     if (file.isEmpty()) continue;
-                    // Check size limit (5MB)
+                    // Check size limit (5MB) before anything is uploaded
                     if (!cloudinaryService.isValidFileSize(file, 5.0)) {
                         log.warn("File size exceeded for {}", file.getOriginalFilename());
                         return ResponseEntity.badRequest().body(Map.of("error", "File " + file.getOriginalFilename() + " exceeds 5MB limit"));
                     }
-                    String url = cloudinaryService.uploadProductImage(file);
-                    finalImages.add(url);
                 }
+                finalImages.addAll(imageUploadService.uploadAll(files, "products"));
             }
             product.setpImages(finalImages);
 
@@ -89,6 +95,7 @@ public class SellerController {
             // 5. Generate ID
             String customId = generateProductId(product.getpName(), product.getpBrandName());
             product.setpId(customId);
+            product.setChangeSeq(changeLog.nextSequence());
 
             // 6. Save to Firebase
             DatabaseReference ref = FirebaseDatabase.getInstance().getReference("products");
@@ -126,9 +133,9 @@ public class SellerController {
                     public void onDataChange(DataSnapshot snapshot) {
                         List<SellerProductResponseDto> list = new ArrayList<>();
                         for (DataSnapshot data : snapshot.getChildren()) {
-                            Product p = data.getValue(Product.class);
-                            if (p != null) {
-                                list.add(mapToSellerDto(p));
+                            SellerProductResponseDto dto = FirebaseSnapshotMapper.toSellerDto(data);
+                            if (dto != null) {
+                                list.add(dto);
                             }
                         }
                         log.info("Retrieved {} products for seller {}", list.size(), sellerEmail);
@@ -170,14 +177,14 @@ public class SellerController {
                 return ResponseEntity.status(HttpStatus.FORBIDDEN).body(Map.of("error", "You do not own this product"));
             }
 
-            // Delete images from Cloudinary
+            // Removes the product and leaves a tombstone so delta-syncing clients learn about it
+            changeLog.deleteWithTombstone(pId, changeLog.nextSequence());
+
+            // Images are deleted from Cloudinary in the background
             if (existingProduct.getpImages() != null && !existingProduct.getpImages().isEmpty()) {
-                log.debug("Deleting images from Cloudinary for product {}", pId);
-                String[] imagesToDelete = existingProduct.getpImages().toArray(new String[0]);
-                cloudinaryService.deleteImages(imagesToDelete);
+                log.debug("Queueing images of product {} for deletion", pId);
+                imageDeletionOutbox.enqueue(existingProduct.getpImages());
             }
-
-            FirebaseDatabase.getInstance().getReference("products").child(pId).removeValueAsync();
             log.info("Product ID {} deleted successfully", pId);
             return ResponseEntity.ok(Map.of("message", "Product deleted successfully", "deletedId", pId));
 
@@ -243,20 +250,10 @@ public class SellerController {
                     .filter(img -> !keptImages.contains(img))
                     .toList();
 
-            if (!imagesToDelete.isEmpty()) {
-                log.debug("Removing {} deleted images from Cloudinary", imagesToDelete.size());
-                cloudinaryService.deleteImages(imagesToDelete.toArray(new String[0]));
-            }
-
-            // Upload new files
+            // Upload new files first, so a failed upload leaves the old images in place
             if (files != null && !files.isEmpty()) {
                 log.debug("Uploading {} new images during update", files.size());
-                for (MultipartFile file : files) {
-                    if (!file.isEmpty()) {
-                        String newUrl = cloudinaryService.uploadProductImage(file);
-                        keptImages.add(newUrl);
-                    }
-                }
+                keptImages.addAll(imageUploadService.uploadAll(files, "products"));
             }
 
             // 5. MERGE FIELDS
@@ -275,6 +272,7 @@ public class SellerController {
             existingProduct.setConfidence(updateData.getConfidence());
             existingProduct.setMode(updateData.getMode());
             existingProduct.setpImages(keptImages); // Set updated list
+            existingProduct.setChangeSeq(changeLog.nextSequence());
 
             // 6. Save merged product
             FirebaseDatabase.getInstance()
@@ -282,6 +280,12 @@ public class SellerController {
                     .child(pId)
                     .setValueAsync(existingProduct);
 
+            // Removed images are deleted from Cloudinary in the background
+            if (!imagesToDelete.isEmpty()) {
+                log.debug("Queueing {} removed images for deletion", imagesToDelete.size());
+                imageDeletionOutbox.enqueue(imagesToDelete);
+            }
+
             log.info("Product ID {} updated successfully", pId);
 
             return ResponseEntity.ok(
@@ -341,8 +345,11 @@ public class SellerController {
         ref.addListenerForSingleValueEvent(new ValueEventListener() {
             @Override
             public void onDataChange(DataSnapshot snapshot) {
-                Product product = snapshot.getValue(Product.class);
-                future.complete(product);
+                try {
+                    future.complete(FirebaseSnapshotMapper.toProduct(snapshot));
+                } catch (DatabaseException e) {
+                    future.completeExceptionally(e);
+                }
             }
             @Override
             public void onCancelled(DatabaseError error) {
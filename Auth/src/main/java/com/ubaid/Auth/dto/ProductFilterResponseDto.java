@@ -0,0 +1,23 @@
+package com.ubaid.Auth.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class ProductFilterResponseDto {
+
+    // Number of products matching all selected facets
+    private int total;
+    private List<PublicProductResponseDto> products;
+
+    // facet -> value -> number of matching products if that value were selected
+    private Map<String, Map<String, Integer>> facets;
+}
@@ -0,0 +1,24 @@
+package com.ubaid.Auth.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class ProductPageResponseDto {
+
+    private List<PublicProductResponseDto> products;
+
+    // Opaque cursor for the next page, null on the last page
+    private String nextCursor;
+
+    private String sort;
+    private String order;
+    private int limit;
+}
@@ -0,0 +1,22 @@
+package com.ubaid.Auth.dto;
+
+import com.fasterxml.jackson.annotation.JsonAutoDetect;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@JsonAutoDetect(fieldVisibility = JsonAutoDetect.Visibility.ANY, getterVisibility = JsonAutoDetect.Visibility.NONE, isGetterVisibility = JsonAutoDetect.Visibility.NONE)
+public class ProductSuggestionDto {
+
+    private String pId;
+    private String pName;
+    private String pBrandName;
+
+    // Suggestions are ranked by this, highest first
+    private int pCreditScore;
+}
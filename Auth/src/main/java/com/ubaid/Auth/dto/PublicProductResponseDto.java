@@ -1,5 +1,6 @@
 package com.ubaid.Auth.dto;
 
+import com.fasterxml.jackson.annotation.JsonAutoDetect;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -11,6 +12,8 @@ import java.util.List;
 @Builder
 @AllArgsConstructor
 @NoArgsConstructor
+// Serialize by field so names stay "pId", "pName"... under any Jackson mapper (Lombok getters would yield "pid")
+@JsonAutoDetect(fieldVisibility = JsonAutoDetect.Visibility.ANY, getterVisibility = JsonAutoDetect.Visibility.NONE, isGetterVisibility = JsonAutoDetect.Visibility.NONE)
 public class PublicProductResponseDto {
 
     // Basic Details
@@ -31,4 +34,8 @@ public class PublicProductResponseDto {
 
     // Sorting & Ranking (Added)
     private double pCreditScore;
+
+    // Review aggregates
+    private double averageRating;
+    private long ratingCount;
 }
\ No newline at end of file
@@ -0,0 +1,22 @@
+package com.ubaid.Auth.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class RatingSummaryDto {
+
+    private String productId;
+    private long count;
+    private double average;
+
+    // Number of reviews per star rating, index 0 to 5
+    private List<Long> histogram;
+}
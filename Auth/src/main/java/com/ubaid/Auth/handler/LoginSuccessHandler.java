@@ -1,6 +1,7 @@
 package com.ubaid.Auth.handler;
 
 import com.google.firebase.database.*;
+import com.ubaid.Auth.mapper.FirebaseSnapshotMapper;
 import com.ubaid.Auth.model.UserEntity;
 import com.ubaid.Auth.service.JwtService;
 import jakarta.servlet.ServletException;
@@ -79,7 +80,7 @@ public class LoginSuccessHandler implements AuthenticationSuccessHandler {
                         String uid = child.getKey();
 
                         // Try to map object
-                        UserEntity existingUser = child.getValue(UserEntity.class);
+                        UserEntity existingUser = FirebaseSnapshotMapper.toUserEntity(child);
 
                         // Fallback if mapping failed due to field mismatch
                         if (existingUser == null) existingUser = new UserEntity();
@@ -0,0 +1,28 @@
+package com.ubaid.Auth.mapper;
+
+import java.nio.charset.StandardCharsets;
+import java.util.regex.Pattern;
+
+/**
+ * Validation of user-supplied Firebase Realtime Database keys.
+ * {@code DatabaseReference.child} throws on keys it cannot address, so request input
+ * has to be checked before it is turned into a path.
+ */
+public final class FirebaseKeys {
+
+    // Characters Firebase forbids in keys, plus control characters
+    private static final Pattern FORBIDDEN = Pattern.compile("[\\[\\].#$/\\u0000-\\u001F\\u007F]");
+    private static final int MAX_KEY_BYTES = 768;
+
+    private FirebaseKeys() {
+    }
+
+    /**
+     * Whether the value can be used as a single path segment
+     */
+    public static boolean isValid(String key) {
+        return key != null && !key.isEmpty()
+                && key.getBytes(StandardCharsets.UTF_8).length <= MAX_KEY_BYTES
+                && !FORBIDDEN.matcher(key).find();
+    }
+}
@@ -0,0 +1,261 @@
+package com.ubaid.Auth.mapper;
+
+import com.google.firebase.database.DataSnapshot;
+import com.google.firebase.database.DatabaseException;
+import com.ubaid.Auth.dto.SellerProductResponseDto;
+import com.ubaid.Auth.model.Product;
+import com.ubaid.Auth.model.RatingSummary;
+import com.ubaid.Auth.model.Review;
+import com.ubaid.Auth.model.UserEntity;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Hand-written conversions from raw Firebase snapshot values to models and DTOs.
+ * Replaces {@code DataSnapshot.getValue(X.class)}, whose reflective bean mapping dominated
+ * CPU on full-catalog reads. Type rules follow the Firebase mapper: numbers narrow to int
+ * only when in range, and mismatched types fail with a {@link DatabaseException}.
+ */
+public final class FirebaseSnapshotMapper {
+
+    private FirebaseSnapshotMapper() {
+    }
+
+    // --- PRODUCT ---
+
+    public static Product toProduct(DataSnapshot snapshot) {
+        Map<String, Object> values = fields(snapshot, "Product");
+        return values != null ? toProduct(values) : null;
+    }
+
+    public static Product toProduct(Map<String, Object> values) {
+        Product p = new Product();
+        p.setpId(string(values, "pId"));
+        p.setpName(string(values, "pName"));
+        p.setpSellingPrice(integer(values, "pSellingPrice"));
+        p.setpMrp(integer(values, "pMrp"));
+        p.setpPurchasingPrice(integer(values, "pPurchasingPrice"));
+        p.setpDescription(string(values, "pDescription"));
+        p.setpBrandName(string(values, "pBrandName"));
+        p.setpCreditScore(integer(values, "pCreditScore"));
+        if (values.containsKey("pImages")) {
+            p.setpImages(strings(values, "pImages"));
+        }
+        p.setSellerEmail(string(values, "sellerEmail"));
+        p.setCategory(string(values, "category"));
+        p.setSubCategory(string(values, "subCategory"));
+        if (values.containsKey("keywords")) {
+            p.setKeywords(strings(values, "keywords"));
+        }
+        p.setConfidence(decimal(values, "confidence"));
+        p.setMode(string(values, "mode"));
+        p.setChangeSeq(longValue(values, "changeSeq"));
+        return p;
+    }
+
+    /**
+     * Straight to the seller view, without building a Product first
+     */
+    public static SellerProductResponseDto toSellerDto(DataSnapshot snapshot) {
+        Map<String, Object> values = fields(snapshot, "Product");
+        if (values == null) {
+            return null;
+        }
+        List<String> images = strings(values, "pImages");
+        return SellerProductResponseDto.builder()
+                .pId(string(values, "pId"))
+                .pName(string(values, "pName"))
+                .pDescription(string(values, "pDescription"))
+                .pBrandName(string(values, "pBrandName"))
+                .pMrp(integer(values, "pMrp"))
+                .pSellingPrice(integer(values, "pSellingPrice"))
+                .pPurchasingPrice(integer(values, "pPurchasingPrice"))
+                .pCreditScore(integer(values, "pCreditScore"))
+                .sellerEmail(string(values, "sellerEmail"))
+                .pImages(images != null ? images : new ArrayList<>())
+                .category(string(values, "category"))
+                .subCategory(string(values, "subCategory"))
+                .keywords(values.containsKey("keywords") ? strings(values, "keywords") : new ArrayList<>())
+                .confidence(decimal(values, "confidence"))
+                .mode(string(values, "mode"))
+                .build();
+    }
+
+    // --- REVIEW ---
+
+    public static Review toReview(DataSnapshot snapshot) {
+        Map<String, Object> values = fields(snapshot, "Review");
+        if (values == null) {
+            return null;
+        }
+        Review r = new Review();
+        r.setId(string(values, "id"));
+        r.setProductId(string(values, "productId"));
+        r.setUserId(string(values, "userId"));
+        r.setUserName(string(values, "userName"));
+        r.setUserProfileImage(string(values, "userProfileImage"));
+        r.setRating(integer(values, "rating"));
+        r.setMessage(string(values, "message"));
+        if (values.containsKey("imageUrls")) {
+            r.setImageUrls(strings(values, "imageUrls"));
+        }
+        r.setTimestamp(longValue(values, "timestamp"));
+        return r;
+    }
+
+    // --- RATING SUMMARY ---
+
+    public static RatingSummary toRatingSummary(DataSnapshot snapshot) {
+        Map<String, Object> values = fields(snapshot, "RatingSummary");
+        return values != null ? toRatingSummary(values) : null;
+    }
+
+    public static RatingSummary toRatingSummary(Map<String, Object> values) {
+        RatingSummary summary = new RatingSummary();
+        summary.setCount(longValue(values, "count"));
+        summary.setSum(longValue(values, "sum"));
+        List<Long> histogram = summary.getHistogram();
+        Object stored = values.get("histogram");
+        if (stored instanceof List<?> list) {
+            for (int i = 0; i < list.size() && i < histogram.size(); i++) {
+                histogram.set(i, list.get(i) instanceof Number n ? n.longValue() : 0L);
+            }
+        } else if (stored instanceof Map<?, ?> map) {
+            // Sparse arrays come back as index-keyed maps
+            for (Map.Entry<?, ?> entry : map.entrySet()) {
+                int index;
+                try {
+                    index = Integer.parseInt(String.valueOf(entry.getKey()));
+                } catch (NumberFormatException e) {
+                    throw mismatch("histogram", stored, "List");
+                }
+                if (index >= 0 && index < histogram.size() && entry.getValue() instanceof Number n) {
+                    histogram.set(index, n.longValue());
+                }
+            }
+        }
+        return summary;
+    }
+
+    // --- USER ---
+
+    public static UserEntity toUserEntity(DataSnapshot snapshot) {
+        Map<String, Object> values = fields(snapshot, "UserEntity");
+        if (values == null) {
+            return null;
+        }
+        UserEntity u = new UserEntity();
+        u.setId(string(values, "id"));
+        u.setEmail(string(values, "email"));
+        u.setUsername(string(values, "username"));
+        u.setProfilePhotoUrl(string(values, "profilePhotoUrl"));
+        u.setRole(string(values, "role"));
+        return u;
+    }
+
+    // --- HELPER METHODS ---
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> fields(DataSnapshot snapshot, String type) {
+        Object value = snapshot.getValue();
+        if (value == null) {
+            return null;
+        }
+        if (!(value instanceof Map)) {
+            throw new DatabaseException("Can't convert object of type " + value.getClass().getName() + " to type " + type);
+        }
+        return (Map<String, Object>) value;
+    }
+
+    private static String string(Map<String, Object> values, String key) {
+        Object value = values.get(key);
+        if (value == null || value instanceof String) {
+            return (String) value;
+        }
+        throw mismatch(key, value, "String");
+    }
+
+    private static int integer(Map<String, Object> values, String key) {
+        Object value = values.get(key);
+        if (value == null) {
+            return 0;
+        }
+        if (value instanceof Integer || value instanceof Long || value instanceof Double) {
+            double number = ((Number) value).doubleValue();
+            if (number >= Integer.MIN_VALUE && number <= Integer.MAX_VALUE) {
+                return ((Number) value).intValue();
+            }
+            throw new DatabaseException("Numeric value out of 32-bit integer range for " + key + ": " + number);
+        }
+        throw mismatch(key, value, "int");
+    }
+
+    private static long longValue(Map<String, Object> values, String key) {
+        Object value = values.get(key);
+        if (value == null) {
+            return 0;
+        }
+        if (value instanceof Integer || value instanceof Long) {
+            return ((Number) value).longValue();
+        }
+        if (value instanceof Double number) {
+            if (number >= Long.MIN_VALUE && number <= Long.MAX_VALUE) {
+                return number.longValue();
+            }
+            throw new DatabaseException("Numeric value out of 64-bit long range for " + key + ": " + number);
+        }
+        throw mismatch(key, value, "long");
+    }
+
+    private static double decimal(Map<String, Object> values, String key) {
+        Object value = values.get(key);
+        if (value == null) {
+            return 0;
+        }
+        if (value instanceof Number number) {
+            return number.doubleValue();
+        }
+        throw mismatch(key, value, "double");
+    }
+
+    // Firebase returns arrays as lists, or as index-keyed maps when they are sparse
+    private static List<String> strings(Map<String, Object> values, String key) {
+        Object value = values.get(key);
+        if (value == null) {
+            return null;
+        }
+        Iterable<?> items;
+        if (value instanceof List<?> list) {
+            items = list;
+        } else if (value instanceof Map<?, ?> map) {
+            Map<Integer, Object> byIndex = new TreeMap<>();
+            for (Map.Entry<?, ?> entry : map.entrySet()) {
+                try {
+                    byIndex.put(Integer.parseInt(String.valueOf(entry.getKey())), entry.getValue());
+                } catch (NumberFormatException e) {
+                    throw mismatch(key, value, "List");
+                }
+            }
+            items = byIndex.values();
+        } else {
+            throw mismatch(key, value, "List");
+        }
+
+        List<String> result = new ArrayList<>();
+        for (Object item : items) {
+            if (item != null && !(item instanceof String)) {
+                throw mismatch(key, item, "String");
+            }
+            result.add((String) item);
+        }
+        return result;
+    }
+
+    private static DatabaseException mismatch(String key, Object value, String type) {
+        return new DatabaseException("Failed to convert value of type " + value.getClass().getName()
+                + " to " + type + " for field " + key);
+    }
+}
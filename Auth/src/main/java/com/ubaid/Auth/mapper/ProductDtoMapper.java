@@ -0,0 +1,37 @@
+package com.ubaid.Auth.mapper;
+
+import com.ubaid.Auth.dto.PublicProductResponseDto;
+import com.ubaid.Auth.model.Product;
+import com.ubaid.Auth.model.RatingSummary;
+
+import java.util.ArrayList;
+
+/**
+ * Conversions from the Firebase product model to response DTOs.
+ */
+public final class ProductDtoMapper {
+
+    private ProductDtoMapper() {
+    }
+
+    /**
+     * @param rating Review aggregate of the product, or null if it has none
+     */
+    public static PublicProductResponseDto toPublicDto(Product product, RatingSummary rating) {
+        return PublicProductResponseDto.builder()
+                .pId(product.getpId())
+                .pName(product.getpName())
+                .pDescription(product.getpDescription())
+                .pBrandName(product.getpBrandName())
+                .pImages(product.getpImages() != null ? product.getpImages() : new ArrayList<>())
+                .pSellingPrice(product.getpSellingPrice())
+                .pMrp(product.getpMrp())
+                .category(product.getCategory())
+                .subCategory(product.getSubCategory())
+                .keywords(product.getKeywords())
+                .pCreditScore(product.getpCreditScore()) // Added for sorting
+                .averageRating(rating != null ? rating.average() : 0)
+                .ratingCount(rating != null ? rating.getCount() : 0)
+                .build();
+    }
+}
@@ -0,0 +1,174 @@
+package com.ubaid.Auth.mapper;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.ubaid.Auth.model.Product;
+import com.ubaid.Auth.model.RatingSummary;
+
+import java.io.IOException;
+import java.util.*;
+
+/**
+ * Attributes of {@link com.ubaid.Auth.dto.PublicProductResponseDto} that a client can select with {@code fields=}.
+ * Each one writes itself straight from the Product, with the same name and JSON type as the full DTO.
+ */
+public enum PublicProductField {
+
+    P_ID("pId") {
+        @Override
+        void write(JsonGenerator gen, Product p, RatingSummary r) throws IOException {
+            gen.writeStringField(jsonName, p.getpId());
+        }
+    },
+    P_NAME("pName") {
+        @Override
+        void write(JsonGenerator gen, Product p, RatingSummary r) throws IOException {
+            gen.writeStringField(jsonName, p.getpName());
+        }
+    },
+    P_DESCRIPTION("pDescription") {
+        @Override
+        void write(JsonGenerator gen, Product p, RatingSummary r) throws IOException {
+            gen.writeStringField(jsonName, p.getpDescription());
+        }
+    },
+    P_BRAND_NAME("pBrandName") {
+        @Override
+        void write(JsonGenerator gen, Product p, RatingSummary r) throws IOException {
+            gen.writeStringField(jsonName, p.getpBrandName());
+        }
+    },
+    P_IMAGES("pImages") {
+        @Override
+        void write(JsonGenerator gen, Product p, RatingSummary r) throws IOException {
+            writeStrings(gen, jsonName, p.getpImages() != null ? p.getpImages() : Collections.emptyList());
+        }
+    },
+    // Not on the full DTO: just the first of pImages, for list thumbnails
+    P_IMAGE("pImage") {
+        @Override
+        void write(JsonGenerator gen, Product p, RatingSummary r) throws IOException {
+            List<String> images = p.getpImages();
+            gen.writeStringField(jsonName, images != null && !images.isEmpty() ? images.get(0) : null);
+        }
+    },
+    P_SELLING_PRICE("pSellingPrice") {
+        @Override
+        void write(JsonGenerator gen, Product p, RatingSummary r) throws IOException {
+            gen.writeNumberField(jsonName, (double) p.getpSellingPrice());
+        }
+    },
+    P_MRP("pMrp") {
+        @Override
+        void write(JsonGenerator gen, Product p, RatingSummary r) throws IOException {
+            gen.writeNumberField(jsonName, (double) p.getpMrp());
+        }
+    },
+    CATEGORY("category") {
+        @Override
+        void write(JsonGenerator gen, Product p, RatingSummary r) throws IOException {
+            gen.writeStringField(jsonName, p.getCategory());
+        }
+    },
+    SUB_CATEGORY("subCategory") {
+        @Override
+        void write(JsonGenerator gen, Product p, RatingSummary r) throws IOException {
+            gen.writeStringField(jsonName, p.getSubCategory());
+        }
+    },
+    KEYWORDS("keywords") {
+        @Override
+        void write(JsonGenerator gen, Product p, RatingSummary r) throws IOException {
+            writeStrings(gen, jsonName, p.getKeywords());
+        }
+    },
+    P_CREDIT_SCORE("pCreditScore") {
+        @Override
+        void write(JsonGenerator gen, Product p, RatingSummary r) throws IOException {
+            gen.writeNumberField(jsonName, (double) p.getpCreditScore());
+        }
+    },
+    AVERAGE_RATING("averageRating") {
+        @Override
+        void write(JsonGenerator gen, Product p, RatingSummary r) throws IOException {
+            gen.writeNumberField(jsonName, r != null ? r.average() : 0);
+        }
+    },
+    RATING_COUNT("ratingCount") {
+        @Override
+        void write(JsonGenerator gen, Product p, RatingSummary r) throws IOException {
+            gen.writeNumberField(jsonName, r != null ? r.getCount() : 0);
+        }
+    };
+
+    private static final Map<String, PublicProductField> BY_NAME = new HashMap<>();
+
+    static {
+        for (PublicProductField field : values()) {
+            BY_NAME.put(field.jsonName.toLowerCase(Locale.ROOT), field);
+        }
+    }
+
+    final String jsonName;
+
+    PublicProductField(String jsonName) {
+        this.jsonName = jsonName;
+    }
+
+    public String getName() {
+        return jsonName;
+    }
+
+    abstract void write(JsonGenerator gen, Product p, RatingSummary r) throws IOException;
+
+    /**
+     * Write the selected attributes of a product as one JSON object
+     * @param rating Review aggregate of the product, or null if it has none
+     */
+    public static void writeProjection(JsonGenerator gen, Product product, RatingSummary rating,
+                                       Set<PublicProductField> fields) throws IOException {
+        gen.writeStartObject();
+        for (PublicProductField field : fields) {
+            field.write(gen, product, rating);
+        }
+        gen.writeEndObject();
+    }
+
+    /**
+     * Parse a fields= parameter; names are case-insensitive and may be comma separated
+     * @return The selected fields in declaration order, or null when none were requested
+     * @throws IllegalArgumentException On an unknown field name
+     */
+    public static Set<PublicProductField> parse(List<String> names) {
+        if (names == null) {
+            return null;
+        }
+        Set<PublicProductField> fields = EnumSet.noneOf(PublicProductField.class);
+        for (String raw : names) {
+            for (String part : raw.split(",")) {
+                String key = part.trim().toLowerCase(Locale.ROOT);
+                if (key.isEmpty()) {
+                    continue;
+                }
+                PublicProductField field = BY_NAME.get(key);
+                if (field == null) {
+                    throw new IllegalArgumentException("Unknown field: " + part.trim() + ". Supported: " + BY_NAME.values().stream()
+                            .sorted().map(PublicProductField::getName).toList());
+                }
+                fields.add(field);
+            }
+        }
+        return fields.isEmpty() ? null : fields;
+    }
+
+    private static void writeStrings(JsonGenerator gen, String name, List<String> values) throws IOException {
+        if (values == null) {
+            gen.writeNullField(name);
+            return;
+        }
+        gen.writeArrayFieldStart(name);
+        for (String value : values) {
+            gen.writeString(value);
+        }
+        gen.writeEndArray();
+    }
+}
@@ -3,6 +3,7 @@ package com.ubaid.Auth.model;
 import com.google.firebase.database.PropertyName;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Objects;
 
 public class Product {
 
@@ -119,6 +120,14 @@ public class Product {
     @PropertyName("mode")
     public void setMode(String mode) { this.mode = mode; }
 
+    // --- Change Tracking ---
+    private long changeSeq; // Global sequence stamped on every seller write, used for delta sync
+
+    @PropertyName("changeSeq")
+    public long getChangeSeq() { return changeSeq; }
+    @PropertyName("changeSeq")
+    public void setChangeSeq(long changeSeq) { this.changeSeq = changeSeq; }
+
     // --- Constructors ---
     public Product() { }
 
@@ -142,4 +151,33 @@ public class Product {
         this.confidence = confidence;
         this.mode = mode;
     }
-}
\ No newline at end of file
+
+    // --- Equality (used to skip no-op updates when reconciling the in-memory catalog) ---
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof Product other)) return false;
+        return pSellingPrice == other.pSellingPrice
+                && pMrp == other.pMrp
+                && pPurchasingPrice == other.pPurchasingPrice
+                && pCreditScore == other.pCreditScore
+                && Double.compare(confidence, other.confidence) == 0
+                && changeSeq == other.changeSeq
+                && Objects.equals(pId, other.pId)
+                && Objects.equals(pName, other.pName)
+                && Objects.equals(pDescription, other.pDescription)
+                && Objects.equals(pBrandName, other.pBrandName)
+                && Objects.equals(pImages, other.pImages)
+                && Objects.equals(sellerEmail, other.sellerEmail)
+                && Objects.equals(category, other.category)
+                && Objects.equals(subCategory, other.subCategory)
+                && Objects.equals(keywords, other.keywords)
+                && Objects.equals(mode, other.mode);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(pId, pName, pSellingPrice, pMrp, pPurchasingPrice, pDescription, pBrandName,
+                pCreditScore, pImages, sellerEmail, category, subCategory, keywords, confidence, mode, changeSeq);
+    }
+}
@@ -0,0 +1,45 @@
+package com.ubaid.Auth.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Running rating totals of one product, stored under "productRatings/{productId}".
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class RatingSummary {
+
+    public static final int MIN_RATING = 0;
+    public static final int MAX_RATING = 5;
+
+    private long count;
+    private long sum;
+    private List<Long> histogram = new ArrayList<>(Collections.nCopies(MAX_RATING + 1, 0L)); // index = stars, 0 to 5
+
+    /**
+     * The one range check for star ratings, shared by the review API and the aggregates
+     */
+    public static boolean isValidRating(int rating) {
+        return rating >= MIN_RATING && rating <= MAX_RATING;
+    }
+
+    public double average() {
+        return count == 0 ? 0 : (double) sum / count;
+    }
+
+    /**
+     * Count one more rating; callers must check {@link #isValidRating(int)} first
+     */
+    public void add(int rating) {
+        count++;
+        sum += rating;
+        histogram.set(rating, histogram.get(rating) + 1);
+    }
+}
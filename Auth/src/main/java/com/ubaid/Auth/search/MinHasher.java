@@ -0,0 +1,99 @@
+package com.ubaid.Auth.search;
+
+import java.util.Arrays;
+import java.util.Collection;
+
+/**
+ * MinHash signatures for estimating Jaccard similarity of feature sets,
+ * plus the band hashing used to bucket them for locality-sensitive lookups.
+ */
+public final class MinHasher {
+
+    private final int bands;
+    private final int rows;
+    private final long[] seeds;
+
+    /**
+     * @param bands Number of LSH bands
+     * @param rows Signature values per band; the signature length is bands * rows
+     */
+    public MinHasher(int bands, int rows) {
+        this.bands = bands;
+        this.rows = rows;
+        this.seeds = new long[bands * rows];
+        // Fixed seeds, so signatures are stable across restarts
+        long state = 0x9E3779B97F4A7C15L;
+        for (int i = 0; i < seeds.length; i++) {
+            state += 0x9E3779B97F4A7C15L;
+            seeds[i] = mix(state);
+        }
+    }
+
+    public int bands() {
+        return bands;
+    }
+
+    /**
+     * Signature of a feature set: the minimum of each seeded hash over all features
+     */
+    public int[] signature(Collection<String> features) {
+        int[] signature = new int[seeds.length];
+        Arrays.fill(signature, Integer.MAX_VALUE);
+        for (String feature : features) {
+            long base = hash(feature);
+            for (int i = 0; i < seeds.length; i++) {
+                int value = (int) (mix(base ^ seeds[i]) >>> 33);
+                if (value < signature[i]) {
+                    signature[i] = value;
+                }
+            }
+        }
+        return signature;
+    }
+
+    /**
+     * Bucket key of one band of a signature; equal keys mean the band matched exactly
+     */
+    public long bandKey(int[] signature, int band) {
+        long key = band;
+        for (int i = band * rows; i < (band + 1) * rows; i++) {
+            key = mix(key * 31 + signature[i]);
+        }
+        return key;
+    }
+
+    /**
+     * Fraction of signature positions that agree, an unbiased estimate of Jaccard similarity
+     */
+    public static double estimate(int[] a, int[] b) {
+        int same = 0;
+        for (int i = 0; i < a.length; i++) {
+            if (a[i] == b[i]) {
+                same++;
+            }
+        }
+        return (double) same / a.length;
+    }
+
+    // --- HELPER METHODS ---
+
+    // 64-bit FNV-1a; String.hashCode is too weak to seed many independent hash functions
+    private static long hash(String value) {
+        long h = 0xcbf29ce484222325L;
+        for (int i = 0; i < value.length(); i++) {
+            h ^= value.charAt(i);
+            h *= 0x100000001b3L;
+        }
+        return h;
+    }
+
+    // MurmurHash3 fmix64 finalizer
+    private static long mix(long h) {
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb93fe53b1a4fL;
+        h ^= h >>> 33;
+        return h;
+    }
+}
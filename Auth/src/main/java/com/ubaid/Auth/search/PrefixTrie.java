@@ -0,0 +1,148 @@
+package com.ubaid.Auth.search;
+
+import java.util.*;
+
+/**
+ * Character trie mapping normalized keys to IDs, with a lazily cached top-K list per node.
+ * A node's cached list is rebuilt from its own IDs and its children's cached lists,
+ * so after a write only the nodes on the written key's path need recomputing.
+ * Not thread-safe for writes: callers must exclude readers while inserting or removing.
+ */
+public class PrefixTrie {
+
+    private static final class Node {
+        final Map<Character, Node> children = new HashMap<>();
+        final Set<String> ids = new HashSet<>();
+        volatile List<String> top; // best cacheSize IDs in this subtree, null when stale
+    }
+
+    private final Node root = new Node();
+    private final Comparator<String> ranking;
+    private final int cacheSize;
+
+    /**
+     * @param ranking Order of IDs in results, best first
+     * @param cacheSize Number of best IDs cached per node
+     */
+    public PrefixTrie(Comparator<String> ranking, int cacheSize) {
+        this.ranking = ranking;
+        this.cacheSize = cacheSize;
+    }
+
+    public void insert(String key, String id) {
+        Node node = root;
+        node.top = null;
+        for (int i = 0; i < key.length(); i++) {
+            node = node.children.computeIfAbsent(key.charAt(i), c -> new Node());
+            node.top = null;
+        }
+        node.ids.add(id);
+    }
+
+    public void remove(String key, String id) {
+        Deque<Node> path = new ArrayDeque<>();
+        Node node = root;
+        path.push(node);
+        for (int i = 0; i < key.length(); i++) {
+            node = node.children.get(key.charAt(i));
+            if (node == null) {
+                return;
+            }
+            path.push(node);
+        }
+        node.ids.remove(id);
+
+        // Invalidate the path and prune nodes that no longer lead anywhere
+        int depth = key.length();
+        while (!path.isEmpty()) {
+            Node current = path.pop();
+            current.top = null;
+            Node parent = path.peek();
+            if (parent != null && current.ids.isEmpty() && current.children.isEmpty()) {
+                parent.children.remove(key.charAt(depth - 1));
+            }
+            depth--;
+        }
+    }
+
+    /**
+     * Best-ranked IDs whose key starts with the prefix
+     */
+    public List<String> top(String prefix, int limit) {
+        Node node = find(prefix);
+        if (node == null) {
+            return Collections.emptyList();
+        }
+        if (limit > cacheSize) {
+            List<String> all = collect(node);
+            return all.size() > limit ? all.subList(0, limit) : all;
+        }
+        List<String> top = topOf(node);
+        return top.size() > limit ? top.subList(0, limit) : top;
+    }
+
+    /**
+     * Every ID whose key starts with the prefix, ranked
+     */
+    public List<String> all(String prefix) {
+        Node node = find(prefix);
+        return node == null ? Collections.emptyList() : collect(node);
+    }
+
+    // --- HELPER METHODS ---
+
+    private Node find(String prefix) {
+        Node node = root;
+        for (int i = 0; i < prefix.length() && node != null; i++) {
+            node = node.children.get(prefix.charAt(i));
+        }
+        return node;
+    }
+
+    private List<String> topOf(Node node) {
+        List<String> top = node.top;
+        if (top != null) {
+            return top;
+        }
+        // A min-heap on ranking keeps the best cacheSize candidates
+        PriorityQueue<String> heap = new PriorityQueue<>(ranking.reversed());
+        Set<String> seen = new HashSet<>();
+        for (String id : node.ids) {
+            offer(heap, seen, id);
+        }
+        for (Node child : node.children.values()) {
+            for (String id : topOf(child)) {
+                offer(heap, seen, id);
+            }
+        }
+        List<String> result = new ArrayList<>(heap);
+        result.sort(ranking);
+        top = List.copyOf(result);
+        node.top = top;
+        return top;
+    }
+
+    private void offer(PriorityQueue<String> heap, Set<String> seen, String id) {
+        if (!seen.add(id)) {
+            return;
+        }
+        heap.offer(id);
+        if (heap.size() > cacheSize) {
+            heap.poll();
+        }
+    }
+
+    private List<String> collect(Node start) {
+        Set<String> ids = new HashSet<>();
+        Deque<Node> stack = new ArrayDeque<>();
+        stack.push(start);
+        while (!stack.isEmpty()) {
+            Node node = stack.pop();
+            ids.addAll(node.ids);
+            node.children.values().forEach(stack::push);
+        }
+        List<String> result = new ArrayList<>(ids);
+        result.sort(ranking);
+        return result;
+    }
+}
@@ -0,0 +1,53 @@
+package com.ubaid.Auth.search;
+
+import com.ubaid.Auth.model.Product;
+
+import java.util.function.Function;
+
+/**
+ * Product attributes available for faceted filtering.
+ * Values are normalized so filters and counts are case-insensitive.
+ */
+public enum ProductFacet {
+
+    CATEGORY("category", Product::getCategory),
+    SUB_CATEGORY("subCategory", Product::getSubCategory),
+    BRAND("brand", Product::getpBrandName),
+    PRICE_BAND("priceBand", product -> priceBand(product.getpSellingPrice()));
+
+    // Lower bounds of the selling price bands, in rupees
+    private static final int[] PRICE_BAND_FLOORS = {0, 500, 1000, 2500, 5000, 10000, 25000};
+
+    private final String paramName;
+    private final Function<Product, String> extractor;
+
+    ProductFacet(String paramName, Function<Product, String> extractor) {
+        this.paramName = paramName;
+        this.extractor = extractor;
+    }
+
+    public String getParamName() {
+        return paramName;
+    }
+
+    /**
+     * Normalized facet value of a product, or empty if it has none
+     */
+    public String valueOf(Product product) {
+        return TextTokenizer.normalize(extractor.apply(product));
+    }
+
+    /**
+     * Band label for a price, e.g. "1000-2499" or "25000+"
+     */
+    public static String priceBand(int price) {
+        for (int i = PRICE_BAND_FLOORS.length - 1; i >= 0; i--) {
+            if (price >= PRICE_BAND_FLOORS[i]) {
+                return i == PRICE_BAND_FLOORS.length - 1
+                        ? PRICE_BAND_FLOORS[i] + "+"
+                        : PRICE_BAND_FLOORS[i] + "-" + (PRICE_BAND_FLOORS[i + 1] - 1);
+            }
+        }
+        return PRICE_BAND_FLOORS[0] + "-" + (PRICE_BAND_FLOORS[1] - 1);
+    }
+}
@@ -0,0 +1,67 @@
+package com.ubaid.Auth.search;
+
+import com.ubaid.Auth.model.Product;
+
+import java.util.Locale;
+import java.util.function.ToLongFunction;
+
+/**
+ * Keys the public catalog can be ordered and paged by.
+ * Ties are always broken by pId so every product has a unique position.
+ */
+public enum ProductSortField {
+
+    ID("id", false, product -> 0L),
+    CREDIT_SCORE("creditScore", true, Product::getpCreditScore),
+    PRICE("price", false, Product::getpSellingPrice),
+    DISCOUNT("discount", true, ProductSortField::discountBasisPoints);
+
+    private final String paramName;
+    private final boolean descendingByDefault;
+    private final ToLongFunction<Product> extractor;
+
+    ProductSortField(String paramName, boolean descendingByDefault, ToLongFunction<Product> extractor) {
+        this.paramName = paramName;
+        this.descendingByDefault = descendingByDefault;
+        this.extractor = extractor;
+    }
+
+    public String getParamName() {
+        return paramName;
+    }
+
+    /**
+     * Natural direction when the request does not give one: best first for rankings, cheapest first for price
+     */
+    public boolean isDescendingByDefault() {
+        return descendingByDefault;
+    }
+
+    public long valueOf(Product product) {
+        return extractor.applyAsLong(product);
+    }
+
+    /**
+     * Discount off MRP in basis points (1/100 of a percent), 0 when there is no valid MRP
+     */
+    public static long discountBasisPoints(Product product) {
+        int mrp = product.getpMrp();
+        if (mrp <= 0 || product.getpSellingPrice() >= mrp) {
+            return 0L;
+        }
+        return (mrp - product.getpSellingPrice()) * 10_000L / mrp;
+    }
+
+    /**
+     * Resolve the request parameter value, e.g. "creditScore"
+     * @throws IllegalArgumentException if the value is unknown
+     */
+    public static ProductSortField fromParam(String param) {
+        for (ProductSortField field : values()) {
+            if (field.paramName.toLowerCase(Locale.ROOT).equals(param.toLowerCase(Locale.ROOT))) {
+                return field;
+            }
+        }
+        throw new IllegalArgumentException("Unsupported sort field: " + param);
+    }
+}
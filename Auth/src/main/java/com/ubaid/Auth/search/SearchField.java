@@ -0,0 +1,47 @@
+package com.ubaid.Auth.search;
+
+import com.ubaid.Auth.model.Product;
+
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Product text fields scored by relevance search.
+ */
+public enum SearchField {
+
+    NAME(Product::getpName),
+    BRAND(Product::getpBrandName),
+    DESCRIPTION(Product::getpDescription),
+    CATEGORY(product -> join(product.getCategory(), product.getSubCategory())),
+    KEYWORDS(product -> joinKeywords(product.getKeywords()));
+
+    private final Function<Product, String> extractor;
+
+    SearchField(Function<Product, String> extractor) {
+        this.extractor = extractor;
+    }
+
+    public String textOf(Product product) {
+        return extractor.apply(product);
+    }
+
+    private static String join(String first, String second) {
+        if (first == null) {
+            return second;
+        }
+        return second == null ? first : first + " " + second;
+    }
+
+    // Null and blank entries would otherwise become tokens like "null" and count towards field length
+    private static String joinKeywords(List<String> keywords) {
+        if (keywords == null) {
+            return null;
+        }
+        String joined = keywords.stream()
+                .filter(keyword -> keyword != null && !keyword.isBlank())
+                .collect(Collectors.joining(" "));
+        return joined.isEmpty() ? null : joined;
+    }
+}
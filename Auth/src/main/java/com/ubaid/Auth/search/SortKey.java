@@ -0,0 +1,51 @@
+package com.ubaid.Auth.search;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Position of a product in a sorted view: the sort value, then pId as tie-breaker.
+ * Also doubles as the opaque pagination cursor.
+ */
+public record SortKey(long value, String pId) implements Comparable<SortKey> {
+
+    @Override
+    public int compareTo(SortKey other) {
+        int byValue = Long.compare(value, other.value);
+        return byValue != 0 ? byValue : pId.compareTo(other.pId);
+    }
+
+    /**
+     * Encode as an opaque, URL-safe cursor bound to the given sort field and direction
+     */
+    public String toCursor(ProductSortField field, boolean descending) {
+        String raw = field.getParamName() + "|" + direction(descending) + "|" + value + "|" + pId;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decode a cursor produced by {@link #toCursor(ProductSortField, boolean)}
+     * @throws IllegalArgumentException if the cursor is malformed or was issued for another sort
+     */
+    public static SortKey fromCursor(String cursor, ProductSortField field, boolean descending) {
+        String raw;
+        try {
+            raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+        String[] parts = raw.split("\\|", 4);
+        if (parts.length != 4 || !parts[0].equals(field.getParamName()) || !parts[1].equals(direction(descending))) {
+            throw new IllegalArgumentException("Cursor does not match sort '" + field.getParamName() + "' " + direction(descending));
+        }
+        try {
+            return new SortKey(Long.parseLong(parts[2]), parts[3]);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+
+    private static String direction(boolean descending) {
+        return descending ? "desc" : "asc";
+    }
+}
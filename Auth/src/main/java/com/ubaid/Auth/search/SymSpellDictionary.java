@@ -0,0 +1,108 @@
+package com.ubaid.Auth.search;
+
+import java.util.*;
+
+/**
+ * Symmetric-delete spelling dictionary (SymSpell).
+ * Every term is indexed under all strings reachable by deleting up to maxDistance characters
+ * from its prefix; a lookup generates the same deletes of the query, so candidates are found
+ * with hash lookups instead of comparing against the whole vocabulary.
+ * Not thread-safe for writes: callers must exclude readers while adding or removing terms.
+ */
+public class SymSpellDictionary {
+
+    private final int maxDistance;
+    private final int prefixLength;
+    private final Map<String, Set<String>> deletes = new HashMap<>();
+    private final Set<String> terms = new HashSet<>();
+
+    /**
+     * @param maxDistance Largest edit distance supported by lookups
+     * @param prefixLength Only this many leading characters generate deletes, bounding memory per term
+     */
+    public SymSpellDictionary(int maxDistance, int prefixLength) {
+        this.maxDistance = maxDistance;
+        this.prefixLength = prefixLength;
+    }
+
+    public void add(String term) {
+        if (!terms.add(term)) {
+            return;
+        }
+        for (String variant : variants(term)) {
+            deletes.computeIfAbsent(variant, v -> new HashSet<>()).add(term);
+        }
+    }
+
+    public void remove(String term) {
+        if (!terms.remove(term)) {
+            return;
+        }
+        for (String variant : variants(term)) {
+            Set<String> owners = deletes.get(variant);
+            if (owners != null) {
+                owners.remove(term);
+                if (owners.isEmpty()) {
+                    deletes.remove(variant);
+                }
+            }
+        }
+    }
+
+    /**
+     * Terms within the given edit distance of the query
+     * @return term -> distance
+     */
+    public Map<String, Integer> lookup(String query, int distance) {
+        int max = Math.min(distance, maxDistance);
+        Map<String, Integer> matches = new HashMap<>();
+        if (terms.contains(query)) {
+            matches.put(query, 0);
+        }
+        if (max == 0) {
+            return matches;
+        }
+        for (String variant : variants(query)) {
+            Set<String> candidates = deletes.get(variant);
+            if (candidates == null) {
+                continue;
+            }
+            for (String candidate : candidates) {
+                if (matches.containsKey(candidate)) {
+                    continue;
+                }
+                int d = EditDistance.bounded(query, candidate, max);
+                if (d <= max) {
+                    matches.put(candidate, d);
+                }
+            }
+        }
+        return matches;
+    }
+
+    // --- HELPER METHODS ---
+
+    private Set<String> variants(String term) {
+        String prefix = term.length() > prefixLength ? term.substring(0, prefixLength) : term;
+        Set<String> variants = new HashSet<>();
+        variants.add(prefix);
+        Deque<String> frontier = new ArrayDeque<>();
+        frontier.add(prefix);
+        for (int depth = 0; depth < maxDistance; depth++) {
+            Deque<String> next = new ArrayDeque<>();
+            for (String word : frontier) {
+                if (word.length() <= 1) {
+                    continue;
+                }
+                for (int i = 0; i < word.length(); i++) {
+                    String deleted = word.substring(0, i) + word.substring(i + 1);
+                    if (variants.add(deleted)) {
+                        next.add(deleted);
+                    }
+                }
+            }
+            frontier = next;
+        }
+        return variants;
+    }
+}
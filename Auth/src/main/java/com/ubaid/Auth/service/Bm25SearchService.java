@@ -0,0 +1,184 @@
+package com.ubaid.Auth.service;
+
+import com.ubaid.Auth.model.Product;
+import com.ubaid.Auth.search.SearchField;
+import com.ubaid.Auth.search.TextTokenizer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Field-weighted BM25 relevance search over name, brand, description, category and keywords.
+ * Term frequencies, document frequencies and field lengths are maintained incrementally
+ * from catalog events, so a query only touches the posting lists of its own terms.
+ */
+@Service
+@Slf4j
+public class Bm25SearchService implements CatalogChangeListener {
+
+    public record ScoredProduct(String pId, double score) {
+    }
+
+    private static final SearchField[] FIELDS = SearchField.values();
+
+    // term -> pId -> term frequency per field
+    private final Map<String, Map<String, int[]>> postings = new HashMap<>();
+    // pId -> token count per field
+    private final Map<String, int[]> fieldLengths = new HashMap<>();
+    // pId -> terms it has postings under
+    private final Map<String, Set<String>> documentTerms = new HashMap<>();
+    private final long[] totalFieldLengths = new long[FIELDS.length];
+    private final double[] boosts = new double[FIELDS.length];
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final double k1;
+    private final double b;
+
+    public Bm25SearchService(
+            @Value("${catalog.search.bm25.k1:1.2}") double k1,
+            @Value("${catalog.search.bm25.b:0.75}") double b,
+            @Value("${catalog.search.bm25.boost.name:3.0}") double nameBoost,
+            @Value("${catalog.search.bm25.boost.brand:2.0}") double brandBoost,
+            @Value("${catalog.search.bm25.boost.description:1.0}") double descriptionBoost,
+            @Value("${catalog.search.bm25.boost.category:1.5}") double categoryBoost,
+            @Value("${catalog.search.bm25.boost.keywords:2.0}") double keywordsBoost
+    ) {
+        this.k1 = k1;
+        this.b = b;
+        boosts[SearchField.NAME.ordinal()] = nameBoost;
+        boosts[SearchField.BRAND.ordinal()] = brandBoost;
+        boosts[SearchField.DESCRIPTION.ordinal()] = descriptionBoost;
+        boosts[SearchField.CATEGORY.ordinal()] = categoryBoost;
+        boosts[SearchField.KEYWORDS.ordinal()] = keywordsBoost;
+    }
+
+    @Override
+    public void onProductUpserted(Product previous, Product current) {
+        lock.writeLock().lock();
+        try {
+            unindex(current.getpId());
+            index(current);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void onProductRemoved(Product removed) {
+        lock.writeLock().lock();
+        try {
+            unindex(removed.getpId());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Best matching products for a free text query
+     * @param query Free text; a product matches if it contains any query term
+     * @param limit Number of results to return
+     * @return Products with their scores, best first
+     */
+    public List<ScoredProduct> search(String query, int limit) {
+        Set<String> terms = TextTokenizer.distinctTokens(query);
+        if (terms.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        lock.readLock().lock();
+        try {
+            int docCount = fieldLengths.size();
+            if (docCount == 0) {
+                return Collections.emptyList();
+            }
+            double[] avgLengths = new double[FIELDS.length];
+            for (int f = 0; f < FIELDS.length; f++) {
+                avgLengths[f] = Math.max(1.0, (double) totalFieldLengths[f] / docCount);
+            }
+
+            Map<String, Double> scores = new HashMap<>();
+            for (String term : terms) {
+                Map<String, int[]> docs = postings.get(term);
+                if (docs == null) {
+                    continue;
+                }
+                double idf = Math.log(1 + (docCount - docs.size() + 0.5) / (docs.size() + 0.5));
+                for (Map.Entry<String, int[]> doc : docs.entrySet()) {
+                    int[] tfs = doc.getValue();
+                    int[] lengths = fieldLengths.get(doc.getKey());
+                    double score = 0;
+                    for (int f = 0; f < FIELDS.length; f++) {
+                        if (tfs[f] == 0) {
+                            continue;
+                        }
+                        double norm = k1 * (1 - b + b * lengths[f] / avgLengths[f]);
+                        score += boosts[f] * tfs[f] * (k1 + 1) / (tfs[f] + norm);
+                    }
+                    scores.merge(doc.getKey(), idf * score, Double::sum);
+                }
+            }
+
+            // Min-heap of the best `limit` results seen so far
+            Comparator<ScoredProduct> ranking = Comparator.comparingDouble(ScoredProduct::score)
+                    .thenComparing(ScoredProduct::pId, Comparator.reverseOrder());
+            PriorityQueue<ScoredProduct> heap = new PriorityQueue<>(limit + 1, ranking);
+            for (Map.Entry<String, Double> entry : scores.entrySet()) {
+                heap.offer(new ScoredProduct(entry.getKey(), entry.getValue()));
+                if (heap.size() > limit) {
+                    heap.poll();
+                }
+            }
+            List<ScoredProduct> top = new ArrayList<>(heap);
+            top.sort(ranking.reversed());
+            return top;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // --- HELPER METHODS ---
+
+    private void index(Product product) {
+        int[] lengths = new int[FIELDS.length];
+        Map<String, int[]> termFrequencies = new HashMap<>();
+        for (SearchField field : FIELDS) {
+            List<String> tokens = TextTokenizer.tokenize(field.textOf(product));
+            lengths[field.ordinal()] = tokens.size();
+            for (String token : tokens) {
+                termFrequencies.computeIfAbsent(token, t -> new int[FIELDS.length])[field.ordinal()]++;
+            }
+        }
+
+        for (Map.Entry<String, int[]> entry : termFrequencies.entrySet()) {
+            postings.computeIfAbsent(entry.getKey(), t -> new HashMap<>()).put(product.getpId(), entry.getValue());
+        }
+        for (int f = 0; f < FIELDS.length; f++) {
+            totalFieldLengths[f] += lengths[f];
+        }
+        fieldLengths.put(product.getpId(), lengths);
+        documentTerms.put(product.getpId(), termFrequencies.keySet());
+    }
+
+    private void unindex(String pId) {
+        int[] lengths = fieldLengths.remove(pId);
+        if (lengths == null) {
+            return;
+        }
+        for (int f = 0; f < FIELDS.length; f++) {
+            totalFieldLengths[f] -= lengths[f];
+        }
+        for (String term : documentTerms.remove(pId)) {
+            Map<String, int[]> docs = postings.get(term);
+            if (docs != null) {
+                docs.remove(pId);
+                if (docs.isEmpty()) {
+                    postings.remove(term);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.ubaid.Auth.service;
+
+import com.ubaid.Auth.model.Product;
+
+/**
+ * Receives every change applied to the in-memory product catalog.
+ * Callbacks are delivered one at a time on the Firebase event thread,
+ * so implementations only need to guard against concurrent readers.
+ */
+public interface CatalogChangeListener {
+
+    /**
+     * A product was added or replaced.
+     * @param previous The product that was replaced, or null if it is new
+     * @param current The product now stored in the catalog
+     */
+    void onProductUpserted(Product previous, Product current);
+
+    /**
+     * A product was removed from the catalog.
+     * @param removed The product that was removed
+     */
+    void onProductRemoved(Product removed);
+}
@@ -0,0 +1,200 @@
+package com.ubaid.Auth.service;
+
+import com.ubaid.Auth.model.Product;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Compact binary checkpoint of the product catalog on local disk.
+ * Lets a restarted node serve immediately from the last checkpoint while
+ * the Firebase subscription catches up in the background.
+ */
+@Service
+@Slf4j
+public class CatalogSnapshotStore {
+
+    public record Snapshot(long version, List<Product> products) {
+    }
+
+    private static final int MAGIC = 0x49434353; // "ICCS"
+    private static final int FORMAT_VERSION = 2;
+
+    @Value("${catalog.snapshot.enabled:true}")
+    private boolean enabled;
+
+    @Value("${catalog.snapshot.path:${java.io.tmpdir}/iccs/catalog-snapshot.bin}")
+    private Path path;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Atomically replace the checkpoint file
+     * @param version Catalog version the products correspond to
+     * @param products Products to persist
+     */
+    public void save(long version, Collection<Product> products) throws IOException {
+        Files.createDirectories(path.toAbsolutePath().getParent());
+        Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+
+        int count = 0;
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(FORMAT_VERSION);
+            out.writeLong(version);
+            // The count is not known up front for a live view, so it trails the records
+            for (Product product : products) {
+                out.writeBoolean(true);
+                writeProduct(out, product);
+                count++;
+            }
+            out.writeBoolean(false);
+            out.writeInt(count);
+        }
+        Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        log.info("Catalog snapshot written: {} products at version {} ({} KB)", count, version, Files.size(path) / 1024);
+    }
+
+    /**
+     * Read the checkpoint through a memory-mapped channel
+     * @return The snapshot, or null if there is none or it cannot be read
+     */
+    public Snapshot load() {
+        if (!Files.isRegularFile(path)) {
+            log.info("No catalog snapshot found at {}", path);
+            return null;
+        }
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.getInt() != MAGIC || buffer.getInt() != FORMAT_VERSION) {
+                log.warn("Ignoring catalog snapshot {}: unknown format", path);
+                return null;
+            }
+            long version = buffer.getLong();
+            List<Product> products = new ArrayList<>();
+            while (buffer.get() != 0) {
+                products.add(readProduct(buffer));
+            }
+            int count = buffer.getInt();
+            if (count != products.size()) {
+                log.warn("Ignoring catalog snapshot {}: expected {} products, read {}", path, count, products.size());
+                return null;
+            }
+            return new Snapshot(version, products);
+        } catch (IOException | BufferUnderflowException | IllegalArgumentException e) {
+            log.warn("Ignoring unreadable catalog snapshot {}: {}", path, e.toString());
+            return null;
+        }
+    }
+
+    // --- HELPER METHODS ---
+
+    private static void writeProduct(DataOutputStream out, Product p) throws IOException {
+        writeString(out, p.getpId());
+        writeString(out, p.getpName());
+        writeString(out, p.getpDescription());
+        writeString(out, p.getpBrandName());
+        writeString(out, p.getSellerEmail());
+        writeString(out, p.getCategory());
+        writeString(out, p.getSubCategory());
+        writeString(out, p.getMode());
+        out.writeInt(p.getpSellingPrice());
+        out.writeInt(p.getpMrp());
+        out.writeInt(p.getpPurchasingPrice());
+        out.writeInt(p.getpCreditScore());
+        out.writeDouble(p.getConfidence());
+        writeStrings(out, p.getpImages());
+        writeStrings(out, p.getKeywords());
+        out.writeLong(p.getChangeSeq());
+    }
+
+    private static Product readProduct(MappedByteBuffer in) {
+        Product p = new Product();
+        p.setpId(readString(in));
+        p.setpName(readString(in));
+        p.setpDescription(readString(in));
+        p.setpBrandName(readString(in));
+        p.setSellerEmail(readString(in));
+        p.setCategory(readString(in));
+        p.setSubCategory(readString(in));
+        p.setMode(readString(in));
+        p.setpSellingPrice(in.getInt());
+        p.setpMrp(in.getInt());
+        p.setpPurchasingPrice(in.getInt());
+        p.setpCreditScore(in.getInt());
+        p.setConfidence(in.getDouble());
+        p.setpImages(readStrings(in));
+        p.setKeywords(readStrings(in));
+        p.setChangeSeq(in.getLong());
+        return p;
+    }
+
+    // Length-prefixed UTF-8, with -1 for null
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(MappedByteBuffer in) {
+        int length = in.getInt();
+        if (length < 0) {
+            return null;
+        }
+        // A corrupt or truncated length must not allocate up to 2 GB before failing
+        if (length > in.remaining()) {
+            throw new IllegalArgumentException("string of " + length + " bytes with " + in.remaining() + " left");
+        }
+        byte[] bytes = new byte[length];
+        in.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static void writeStrings(DataOutputStream out, List<String> values) throws IOException {
+        if (values == null) {
+            out.writeInt(-1);
+            return;
+        }
+        out.writeInt(values.size());
+        for (String value : values) {
+            writeString(out, value);
+        }
+    }
+
+    private static List<String> readStrings(MappedByteBuffer in) {
+        int size = in.getInt();
+        if (size < 0) {
+            return null;
+        }
+        // Every element takes at least its 4-byte length prefix
+        if (size > in.remaining() / 4) {
+            throw new IllegalArgumentException("list of " + size + " strings with " + in.remaining() + " bytes left");
+        }
+        List<String> values = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            values.add(readString(in));
+        }
+        return values;
+    }
+}
@@ -2,22 +2,37 @@ package com.ubaid.Auth.service;
 
 import com.cloudinary.Cloudinary;
 import com.cloudinary.utils.ObjectUtils;
+import jakarta.annotation.PreDestroy;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
-import java.util.Map;
-import java.util.UUID;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class CloudinaryService {
 
+    // Admin API delete_resources accepts at most 100 public IDs per call
+    private static final int BULK_DELETE_CHUNK_SIZE = 100;
+    private static final int BULK_DELETE_THREADS = 4;
+
     private final Cloudinary cloudinary;
 
+    private final ExecutorService bulkDeleters = Executors.newFixedThreadPool(BULK_DELETE_THREADS, r -> {
+        Thread thread = new Thread(r, "cloudinary-delete");
+        thread.setDaemon(true);
+        return thread;
+    });
+
     /**
      * Upload image to Cloudinary with optimizations for profile pictures
      * @param file MultipartFile to upload
@@ -53,15 +68,29 @@ public class CloudinaryService {
                 "fetch_format", "auto" // Auto format selection based on browser
         );
 
+        double sizeMB = getFileSizeInMB(file);
+        Path upload = null;
         try {
-            Map uploadResult = cloudinary.uploader().upload(file.getBytes(), uploadOptions);
+            // Hand Cloudinary a file so the body is streamed from disk instead of copied into the heap;
+            // for parts the container already spooled to disk, transferTo is just a move
+            upload = Files.createTempFile("cloudinary-upload-", ".tmp");
+            file.transferTo(upload.toFile());
+            Map uploadResult = cloudinary.uploader().upload(upload.toFile(), uploadOptions);
             String imageUrl = uploadResult.get("secure_url").toString();
             log.info("Image uploaded successfully to Cloudinary. Folder: {}, Size: {} MB, URL: {}",
-                    folder, getFileSizeInMB(file), imageUrl);
+                    folder, sizeMB, imageUrl);
             return imageUrl;
         } catch (Exception e) {
             log.error("Failed to upload image to Cloudinary. Folder: {}, Error: {}", folder, e.getMessage(), e);
             throw new IOException("Failed to upload image to Cloudinary: " + e.getMessage(), e);
+        } finally {
+            if (upload != null) {
+                try {
+                    Files.deleteIfExists(upload);
+                } catch (IOException e) {
+                    log.warn("Could not delete temporary upload file {}: {}", upload, e.getMessage());
+                }
+            }
         }
     }
 
@@ -72,6 +101,11 @@ public class CloudinaryService {
         return uploadImage(file, "auth/users/profiles/" + userId);
     }
 
+    @PreDestroy
+    public void shutdown() {
+        bulkDeleters.shutdownNow();
+    }
+
     /**
      * Delete image from Cloudinary using the image URL
      * @param imageUrl Full URL of the image to delete
@@ -98,7 +132,8 @@ public class CloudinaryService {
 
             Map result = cloudinary.uploader().destroy(publicId, ObjectUtils.emptyMap());
             String deletionResult = (String) result.get("result");
-            boolean success = "ok".equals(deletionResult);
+            // Already gone is as good as deleted
+            boolean success = "ok".equals(deletionResult) || "not found".equals(deletionResult);
 
             if (success) {
                 log.info("Image deleted successfully from Cloudinary: {}", imageUrl);
@@ -174,6 +209,28 @@ public class CloudinaryService {
         }
     }
 
+    /**
+     * One Admin API delete_resources call
+     * @return Public IDs confirmed deleted or already gone; empty if the call failed
+     */
+    private Set<String> deleteChunk(List<String> publicIds) {
+        try {
+            Map<?, ?> result = cloudinary.api().deleteResources(publicIds, ObjectUtils.asMap("resource_type", "image"));
+            Set<String> confirmed = new HashSet<>();
+            if (result.get("deleted") instanceof Map<?, ?> deleted) {
+                deleted.forEach((publicId, status) -> {
+                    if ("deleted".equals(status) || "not_found".equals(status)) {
+                        confirmed.add(String.valueOf(publicId));
+                    }
+                });
+            }
+            return confirmed;
+        } catch (Exception e) {
+            log.warn("Bulk deletion of {} images failed, falling back to single deletes: {}", publicIds.size(), e.getMessage());
+            return Collections.emptySet();
+        }
+    }
+
     /**
      * Generate transformation URL for resizing images
      * @param originalUrl Original Cloudinary URL
@@ -371,24 +428,58 @@ public class CloudinaryService {
     }
 
     /**
-     * Batch delete multiple images
+     * Batch delete multiple images with the Admin API bulk call, in chunks of up to 100 public IDs
+     * issued in parallel. Images the bulk call did not confirm are retried one by one.
+     * Images that no longer exist count as deleted.
      * @param imageUrls Array of image URLs to delete
-     * @return Number of successfully deleted images
+     * @return Whether each URL was deleted, in input order
      */
-    public int deleteImages(String... imageUrls) {
+    public Map<String, Boolean> deleteImages(String... imageUrls) {
+        Map<String, Boolean> results = new LinkedHashMap<>();
         if (imageUrls == null || imageUrls.length == 0) {
-            return 0;
+            return results;
         }
 
-        int deletedCount = 0;
+        // Public ID -> URLs; the same image can be listed under differently formatted URLs
+        Map<String, List<String>> byPublicId = new LinkedHashMap<>();
         for (String imageUrl : imageUrls) {
-            if (deleteImage(imageUrl)) {
-                deletedCount++;
+            if (imageUrl == null || imageUrl.trim().isEmpty()) {
+                results.put(imageUrl, false);
+            } else if (!isCloudinaryUrl(imageUrl)) {
+                results.put(imageUrl, true); // Not ours to delete, like deleteImage
+            } else {
+                String publicId = extractPublicIdFromUrl(imageUrl);
+                if (publicId == null) {
+                    log.warn("Could not extract public_id from Cloudinary URL: {}", imageUrl);
+                    results.put(imageUrl, false);
+                } else {
+                    results.put(imageUrl, false);
+                    byPublicId.computeIfAbsent(publicId, id -> new ArrayList<>()).add(imageUrl);
+                }
             }
         }
 
-        log.info("Batch deletion completed: {}/{} images deleted successfully", deletedCount, imageUrls.length);
-        return deletedCount;
+        List<String> publicIds = new ArrayList<>(byPublicId.keySet());
+        List<CompletableFuture<Set<String>>> chunks = new ArrayList<>();
+        for (int from = 0; from < publicIds.size(); from += BULK_DELETE_CHUNK_SIZE) {
+            List<String> chunk = publicIds.subList(from, Math.min(from + BULK_DELETE_CHUNK_SIZE, publicIds.size()));
+            chunks.add(CompletableFuture.supplyAsync(() -> deleteChunk(chunk), bulkDeleters));
+        }
+
+        Set<String> deleted = new HashSet<>();
+        for (CompletableFuture<Set<String>> chunk : chunks) {
+            deleted.addAll(chunk.join());
+        }
+        byPublicId.forEach((publicId, urls) -> {
+            // Fallback for IDs the bulk call failed on or did not confirm
+            boolean success = deleted.contains(publicId) || deleteImage(urls.get(0));
+            urls.forEach(url -> results.put(url, success));
+        });
+
+        long deletedCount = results.values().stream().filter(Boolean::booleanValue).count();
+        log.info("Batch deletion completed: {}/{} images deleted successfully ({} bulk requests)",
+                deletedCount, results.size(), chunks.size());
+        return results;
     }
 
     /**
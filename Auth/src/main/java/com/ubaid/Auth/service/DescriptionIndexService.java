@@ -0,0 +1,115 @@
+package com.ubaid.Auth.service;
+
+import com.ubaid.Auth.model.Product;
+import com.ubaid.Auth.search.TextTokenizer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * Inverted index from description tokens to product IDs.
+ * Kept up to date by catalog change events, including writes made through SellerController.
+ */
+@Service
+@Slf4j
+public class DescriptionIndexService implements CatalogChangeListener {
+
+    // token -> IDs of products containing it. Sorted so the last query term can match as a prefix.
+    private final ConcurrentNavigableMap<String, Set<String>> postings = new ConcurrentSkipListMap<>();
+
+    // pId -> tokens currently indexed for it, used to undo old postings on update/delete
+    private final Map<String, Set<String>> indexedTokens = new ConcurrentHashMap<>();
+
+    @Value("${catalog.search.description.include-names:false}")
+    private boolean includeNames;
+
+    @Override
+    public void onProductUpserted(Product previous, Product current) {
+        Set<String> newTokens = includeNames
+                ? TextTokenizer.distinctTokens(current.getpDescription(), current.getpName())
+                : TextTokenizer.distinctTokens(current.getpDescription());
+        Set<String> oldTokens = indexedTokens.getOrDefault(current.getpId(), Collections.emptySet());
+
+        for (String token : newTokens) {
+            if (!oldTokens.contains(token)) {
+                postings.computeIfAbsent(token, t -> ConcurrentHashMap.newKeySet()).add(current.getpId());
+            }
+        }
+        for (String token : oldTokens) {
+            if (!newTokens.contains(token)) {
+                removePosting(token, current.getpId());
+            }
+        }
+        indexedTokens.put(current.getpId(), newTokens);
+    }
+
+    @Override
+    public void onProductRemoved(Product removed) {
+        Set<String> oldTokens = indexedTokens.remove(removed.getpId());
+        if (oldTokens != null) {
+            oldTokens.forEach(token -> removePosting(token, removed.getpId()));
+        }
+    }
+
+    /**
+     * Find products whose description contains every query term.
+     * The last term also matches as a prefix, so partially typed words still find results.
+     * @param query Free text query
+     * @return Matching product IDs in ascending order
+     */
+    public List<String> search(String query) {
+        List<String> terms = TextTokenizer.tokenize(query);
+        if (terms.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        List<Set<String>> lists = new ArrayList<>(terms.size());
+        for (int i = 0; i < terms.size(); i++) {
+            Set<String> list = i == terms.size() - 1 ? prefixPostings(terms.get(i)) : postings.get(terms.get(i));
+            if (list == null || list.isEmpty()) {
+                return Collections.emptyList();
+            }
+            lists.add(list);
+        }
+
+        // Walk the shortest posting list and probe the others
+        lists.sort(Comparator.comparingInt(Set::size));
+        List<String> result = new ArrayList<>();
+        Set<String> smallest = lists.get(0);
+        for (String pId : smallest) {
+            boolean inAll = true;
+            for (int i = 1; i < lists.size() && inAll; i++) {
+                inAll = lists.get(i).contains(pId);
+            }
+            if (inAll) {
+                result.add(pId);
+            }
+        }
+        Collections.sort(result);
+        return result;
+    }
+
+    // --- HELPER METHODS ---
+
+    private Set<String> prefixPostings(String prefix) {
+        ConcurrentNavigableMap<String, Set<String>> range = postings.subMap(prefix, true, prefix + Character.MAX_VALUE, false);
+        if (range.size() == 1) {
+            return range.values().iterator().next();
+        }
+        Set<String> union = new HashSet<>();
+        range.values().forEach(union::addAll);
+        return union;
+    }
+
+    private void removePosting(String token, String pId) {
+        postings.computeIfPresent(token, (t, ids) -> {
+            ids.remove(pId);
+            return ids.isEmpty() ? null : ids;
+        });
+    }
+}
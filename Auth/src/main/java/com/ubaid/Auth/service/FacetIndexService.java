@@ -0,0 +1,183 @@
+package com.ubaid.Auth.service;
+
+import com.ubaid.Auth.model.Product;
+import com.ubaid.Auth.search.ProductFacet;
+import lombok.extern.slf4j.Slf4j;
+import org.roaringbitmap.IntIterator;
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Compressed bitmap per facet value over dense product document numbers.
+ * Filters OR the selected values within a facet and AND across facets;
+ * counts are disjunctive, i.e. computed without the facet's own selection.
+ */
+@Service
+@Slf4j
+public class FacetIndexService implements CatalogChangeListener {
+
+    public record FacetResult(int total, List<String> productIds, Map<ProductFacet, Map<String, Integer>> counts) {
+    }
+
+    private final Map<ProductFacet, Map<String, RoaringBitmap>> bitmaps = new EnumMap<>(ProductFacet.class);
+    private final RoaringBitmap allDocs = new RoaringBitmap();
+
+    // Dense document numbers, recycled on delete to keep bitmaps compact
+    private final Map<String, Integer> docIds = new HashMap<>();
+    private final List<String> docProducts = new ArrayList<>();
+    private final Deque<Integer> freeDocIds = new ArrayDeque<>();
+    private final Map<Integer, String[]> docValues = new HashMap<>();
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    public FacetIndexService() {
+        for (ProductFacet facet : ProductFacet.values()) {
+            bitmaps.put(facet, new HashMap<>());
+        }
+    }
+
+    @Override
+    public void onProductUpserted(Product previous, Product current) {
+        lock.writeLock().lock();
+        try {
+            Integer docId = docIds.get(current.getpId());
+            if (docId == null) {
+                docId = freeDocIds.isEmpty() ? docProducts.size() : freeDocIds.pop();
+                if (docId == docProducts.size()) {
+                    docProducts.add(current.getpId());
+                } else {
+                    docProducts.set(docId, current.getpId());
+                }
+                docIds.put(current.getpId(), docId);
+                allDocs.add(docId);
+            }
+
+            ProductFacet[] facets = ProductFacet.values();
+            String[] oldValues = docValues.get(docId);
+            String[] newValues = new String[facets.length];
+            for (ProductFacet facet : facets) {
+                String value = facet.valueOf(current);
+                newValues[facet.ordinal()] = value;
+                String oldValue = oldValues != null ? oldValues[facet.ordinal()] : null;
+                if (value.equals(oldValue)) {
+                    continue;
+                }
+                if (oldValue != null) {
+                    clear(facet, oldValue, docId);
+                }
+                if (!value.isEmpty()) {
+                    bitmaps.get(facet).computeIfAbsent(value, v -> new RoaringBitmap()).add(docId);
+                }
+            }
+            docValues.put(docId, newValues);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void onProductRemoved(Product removed) {
+        lock.writeLock().lock();
+        try {
+            Integer docId = docIds.remove(removed.getpId());
+            if (docId == null) {
+                return;
+            }
+            String[] oldValues = docValues.remove(docId);
+            if (oldValues != null) {
+                for (ProductFacet facet : ProductFacet.values()) {
+                    clear(facet, oldValues[facet.ordinal()], docId);
+                }
+            }
+            allDocs.remove(docId);
+            docProducts.set(docId, null);
+            freeDocIds.push(docId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Filter the catalog by facet selections and count every facet value against the result
+     * @param selections Selected normalized values per facet; facets absent or empty are not filtered
+     * @param offset Number of matching products to skip
+     * @param limit Maximum number of product IDs to return
+     */
+    public FacetResult filter(Map<ProductFacet, Set<String>> selections, int offset, int limit) {
+        lock.readLock().lock();
+        try {
+            Map<ProductFacet, RoaringBitmap> selected = new EnumMap<>(ProductFacet.class);
+            for (Map.Entry<ProductFacet, Set<String>> entry : selections.entrySet()) {
+                if (entry.getValue() == null || entry.getValue().isEmpty()) {
+                    continue;
+                }
+                RoaringBitmap union = new RoaringBitmap();
+                for (String value : entry.getValue()) {
+                    RoaringBitmap bitmap = bitmaps.get(entry.getKey()).get(value);
+                    if (bitmap != null) {
+                        union.or(bitmap);
+                    }
+                }
+                selected.put(entry.getKey(), union);
+            }
+
+            RoaringBitmap matches = intersect(selected, null);
+
+            Map<ProductFacet, Map<String, Integer>> counts = new EnumMap<>(ProductFacet.class);
+            for (ProductFacet facet : ProductFacet.values()) {
+                RoaringBitmap base = selected.containsKey(facet) ? intersect(selected, facet) : matches;
+                Map<String, Integer> valueCounts = new TreeMap<>();
+                for (Map.Entry<String, RoaringBitmap> value : bitmaps.get(facet).entrySet()) {
+                    int count = RoaringBitmap.andCardinality(value.getValue(), base);
+                    if (count > 0) {
+                        valueCounts.put(value.getKey(), count);
+                    }
+                }
+                counts.put(facet, valueCounts);
+            }
+
+            List<String> productIds = new ArrayList<>(Math.min(limit, 128));
+            IntIterator iterator = matches.getIntIterator();
+            int skipped = 0;
+            while (iterator.hasNext() && productIds.size() < limit) {
+                int docId = iterator.next();
+                if (skipped++ >= offset) {
+                    productIds.add(docProducts.get(docId));
+                }
+            }
+            return new FacetResult(matches.getCardinality(), productIds, counts);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // --- HELPER METHODS ---
+
+    private RoaringBitmap intersect(Map<ProductFacet, RoaringBitmap> selected, ProductFacet excluded) {
+        RoaringBitmap result = allDocs.clone();
+        for (Map.Entry<ProductFacet, RoaringBitmap> entry : selected.entrySet()) {
+            if (entry.getKey() != excluded) {
+                result.and(entry.getValue());
+            }
+        }
+        return result;
+    }
+
+    private void clear(ProductFacet facet, String value, int docId) {
+        if (value == null || value.isEmpty()) {
+            return;
+        }
+        Map<String, RoaringBitmap> values = bitmaps.get(facet);
+        RoaringBitmap bitmap = values.get(value);
+        if (bitmap != null) {
+            bitmap.remove(docId);
+            if (bitmap.isEmpty()) {
+                values.remove(value);
+            }
+        }
+    }
+}
@@ -0,0 +1,182 @@
+package com.ubaid.Auth.service;
+
+import com.ubaid.Auth.model.Product;
+import com.ubaid.Auth.search.SymSpellDictionary;
+import com.ubaid.Auth.search.TextTokenizer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Typo-tolerant matching over name/brand words and keyword words.
+ * Uses symmetric-delete dictionaries, so lookups stay fast as the vocabulary grows.
+ */
+@Service
+@Slf4j
+public class FuzzySearchService implements CatalogChangeListener {
+
+    private static final int MAX_DISTANCE = 2;
+    private static final int PREFIX_LENGTH = 7;
+
+    /**
+     * Vocabulary of one kind of text, with the products each term came from
+     */
+    private static final class TermIndex {
+        final SymSpellDictionary dictionary = new SymSpellDictionary(MAX_DISTANCE, PREFIX_LENGTH);
+        final Map<String, Set<String>> termProducts = new HashMap<>();
+        final Map<String, Set<String>> productTerms = new HashMap<>();
+
+        void index(String pId, Set<String> newTerms) {
+            Set<String> oldTerms = productTerms.getOrDefault(pId, Collections.emptySet());
+            for (String term : newTerms) {
+                if (!oldTerms.contains(term)) {
+                    termProducts.computeIfAbsent(term, t -> {
+                        dictionary.add(t);
+                        return new HashSet<>();
+                    }).add(pId);
+                }
+            }
+            for (String term : oldTerms) {
+                if (!newTerms.contains(term)) {
+                    unlink(term, pId);
+                }
+            }
+            if (newTerms.isEmpty()) {
+                productTerms.remove(pId);
+            } else {
+                productTerms.put(pId, newTerms);
+            }
+        }
+
+        void unindex(String pId) {
+            Set<String> oldTerms = productTerms.remove(pId);
+            if (oldTerms != null) {
+                oldTerms.forEach(term -> unlink(term, pId));
+            }
+        }
+
+        private void unlink(String term, String pId) {
+            Set<String> ids = termProducts.get(term);
+            if (ids != null) {
+                ids.remove(pId);
+                if (ids.isEmpty()) {
+                    termProducts.remove(term);
+                    dictionary.remove(term);
+                }
+            }
+        }
+
+        /**
+         * pId -> smallest edit distance of any of its terms to the query word
+         */
+        Map<String, Integer> match(String word) {
+            Map<String, Integer> products = new HashMap<>();
+            for (Map.Entry<String, Integer> hit : dictionary.lookup(word, allowedDistance(word)).entrySet()) {
+                for (String pId : termProducts.getOrDefault(hit.getKey(), Collections.emptySet())) {
+                    products.merge(pId, hit.getValue(), Math::min);
+                }
+            }
+            return products;
+        }
+    }
+
+    private final TermIndex nameTerms = new TermIndex();
+    private final TermIndex keywordTerms = new TermIndex();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    @Override
+    public void onProductUpserted(Product previous, Product current) {
+        Set<String> names = TextTokenizer.distinctTokens(current.getpName(), current.getpBrandName());
+        Set<String> keywords = current.getKeywords() != null
+                ? TextTokenizer.distinctTokens(current.getKeywords().toArray(new String[0]))
+                : Collections.emptySet();
+
+        lock.writeLock().lock();
+        try {
+            nameTerms.index(current.getpId(), names);
+            keywordTerms.index(current.getpId(), keywords);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void onProductRemoved(Product removed) {
+        lock.writeLock().lock();
+        try {
+            nameTerms.unindex(removed.getpId());
+            keywordTerms.unindex(removed.getpId());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Products whose name or brand contains a close match for every word of the query
+     * @return Product IDs, closest total edit distance first
+     */
+    public List<String> searchNames(String query) {
+        List<String> words = TextTokenizer.tokenize(query);
+        if (words.isEmpty()) {
+            return Collections.emptyList();
+        }
+        lock.readLock().lock();
+        try {
+            Map<String, Integer> totals = null;
+            for (String word : words) {
+                Map<String, Integer> matches = nameTerms.match(word);
+                if (totals == null) {
+                    totals = matches;
+                } else {
+                    // Every word must match: keep only products seen for all words so far
+                    totals.keySet().retainAll(matches.keySet());
+                    totals.replaceAll((pId, distance) -> distance + matches.get(pId));
+                }
+                if (totals.isEmpty()) {
+                    return Collections.emptyList();
+                }
+            }
+            return rank(totals);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Products having a keyword close to any of the query keywords
+     * @return Product IDs, closest match first
+     */
+    public List<String> searchKeywords(Collection<String> queryKeywords) {
+        lock.readLock().lock();
+        try {
+            Map<String, Integer> best = new HashMap<>();
+            for (String raw : queryKeywords) {
+                for (String word : TextTokenizer.tokenize(raw)) {
+                    keywordTerms.match(word).forEach((pId, distance) -> best.merge(pId, distance, Math::min));
+                }
+            }
+            return rank(best);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // --- HELPER METHODS ---
+
+    // Short words tolerate fewer typos, otherwise every 2-letter word matches everything
+    private static int allowedDistance(String word) {
+        if (word.length() <= 2) {
+            return 0;
+        }
+        return word.length() <= 5 ? 1 : MAX_DISTANCE;
+    }
+
+    private static List<String> rank(Map<String, Integer> distances) {
+        List<String> ids = new ArrayList<>(distances.keySet());
+        ids.sort(Comparator.comparing((String pId) -> distances.get(pId)).thenComparing(Comparator.naturalOrder()));
+        return ids;
+    }
+}
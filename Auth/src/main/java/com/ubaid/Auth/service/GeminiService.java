@@ -1,21 +1,31 @@
 package com.ubaid.Auth.service;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.extern.slf4j.Slf4j;
+import org.reactivestreams.Publisher;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
 import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.BodyInserters;
 import org.springframework.web.reactive.function.client.WebClient;
 import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.scheduler.Schedulers;
 
+import java.io.*;
+import java.nio.charset.StandardCharsets;
 import java.time.Duration;
 import java.util.Base64;
-import java.util.List;
-import java.util.Map;
 
 @Service
 @Slf4j
 public class GeminiService {
 
+    private static final int STREAM_CHUNK_SIZE = 16 * 1024;
+
     private final WebClient webClient;
+    private final ObjectMapper objectMapper;
 
     @Value("${gemini.api.key}")
     private String geminiApiKey;
@@ -23,36 +33,39 @@ public class GeminiService {
     @Value("${gemini.api.url}")
     private String geminiApiUrl;
 
-    public GeminiService(WebClient.Builder webClientBuilder) {
+    public GeminiService(WebClient.Builder webClientBuilder, ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
         this.webClient = webClientBuilder
                 .codecs(configurer -> configurer.defaultCodecs().maxInMemorySize(10 * 1024 * 1024)) // 10MB
                 .build();
     }
 
-    // MATCHING METHOD SIGNATURE FOR YOUR CONTROLLER
-    public String analyzeImage(String prompt, byte[] imageBytes, String mimeType) {
+    /**
+     * Ask Gemini about an image. The request body is written straight from the image stream,
+     * Base64-encoded chunk by chunk, so neither the image nor its encoding is held on the heap.
+     * @param imageStream Image content; closed once sent
+     */
+    public String analyzeImage(String prompt, InputStream imageStream, String mimeType) {
         try {
             // 1. Sanitize config
             String safeKey = geminiApiKey.trim();
             String safeUrl = geminiApiUrl.trim();
 
-            // 2. Encode Image
-            String base64Image = Base64.getEncoder().encodeToString(imageBytes);
-
-            // 3. Handle null content type (default to jpeg if null)
+            // 2. Handle null content type (default to jpeg if null)
             String safeMimeType = (mimeType != null && !mimeType.isEmpty()) ? mimeType : "image/jpeg";
 
-            // 4. Construct Payload
-            Map<String, Object> requestBody = Map.of(
-                    "contents", List.of(
-                            Map.of("parts", List.of(
-                                    Map.of("text", prompt),
-                                    Map.of("inline_data", Map.of(
-                                            "mime_type", safeMimeType,
-                                            "data", base64Image
-                                    ))
-                            ))
-                    )
+            // 3. Everything around the image data, pre-escaped; Base64 output needs no escaping
+            String bodyPrefix = "{\"contents\":[{\"parts\":[{\"text\":" + objectMapper.writeValueAsString(prompt)
+                    + "},{\"inline_data\":{\"mime_type\":" + objectMapper.writeValueAsString(safeMimeType)
+                    + ",\"data\":\"";
+            String bodySuffix = "\"}}]}]}";
+
+            // 4. Stream the payload
+            Publisher<DataBuffer> requestBody = DataBufferUtils.outputStreamPublisher(
+                    out -> writeRequestBody(out, bodyPrefix, imageStream, bodySuffix),
+                    DefaultDataBufferFactory.sharedInstance,
+                    task -> Schedulers.boundedElastic().schedule(task),
+                    STREAM_CHUNK_SIZE
             );
 
             // 5. Build URL
@@ -66,7 +79,7 @@ public class GeminiService {
             return webClient.post()
                     .uri(fullUrl)
                     .header("Content-Type", "application/json")
-                    .bodyValue(requestBody)
+                    .body(BodyInserters.fromDataBuffers(requestBody))
                     .retrieve()
                     .bodyToMono(String.class)
                     .timeout(Duration.ofSeconds(60))
@@ -80,4 +93,29 @@ public class GeminiService {
             throw new RuntimeException("AI processing failed: " + e.getMessage());
         }
     }
-}
\ No newline at end of file
+
+    // --- HELPER METHODS ---
+
+    private static void writeRequestBody(OutputStream out, String prefix, InputStream imageStream, String suffix) {
+        try (InputStream in = imageStream) {
+            out.write(prefix.getBytes(StandardCharsets.UTF_8));
+            // Shielded from close: closing the encoder must flush its padding, not end the request body
+            OutputStream base64 = Base64.getEncoder().wrap(new FilterOutputStream(out) {
+                @Override
+                public void write(byte[] b, int off, int len) throws IOException {
+                    out.write(b, off, len);
+                }
+
+                @Override
+                public void close() throws IOException {
+                    flush();
+                }
+            });
+            in.transferTo(base64);
+            base64.close();
+            out.write(suffix.getBytes(StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
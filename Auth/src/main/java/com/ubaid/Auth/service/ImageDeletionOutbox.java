@@ -0,0 +1,239 @@
+package com.ubaid.Auth.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+
+/**
+ * Durable queue of Cloudinary images to delete, so seller requests do not wait on Cloudinary.
+ * Every URL is appended to a local log as "+url" before the request returns, and as "-url" once
+ * deleted; on startup the log is replayed, so deletions survive restarts (at least once).
+ * A scheduled worker drains due entries in batches, retrying failures with exponential backoff.
+ */
+@Service
+@Slf4j
+public class ImageDeletionOutbox {
+
+    private static final char ENQUEUED = '+';
+    private static final char DONE = '-';
+
+    private static final class Entry {
+        final String url;
+        int attempts;
+        long nextAttemptAt;
+
+        Entry(String url) {
+            this.url = url;
+        }
+    }
+
+    private final CloudinaryService cloudinaryService;
+    private final Path path;
+    private final int batchSize;
+    private final long backoffMs;
+    private final long maxBackoffMs;
+    private final int maxAttempts;
+    private final int compactThreshold;
+
+    // Insertion order is enqueue order, so the oldest deletions go first. Guarded by this.
+    private final Map<String, Entry> pending = new LinkedHashMap<>();
+    private FileChannel channel;
+    private int records;
+
+    public ImageDeletionOutbox(CloudinaryService cloudinaryService,
+                               @Value("${upload.deletion-outbox.path:data/image-deletions.log}") Path path,
+                               @Value("${upload.deletion-outbox.batch-size:100}") int batchSize,
+                               @Value("${upload.deletion-outbox.backoff-ms:5000}") long backoffMs,
+                               @Value("${upload.deletion-outbox.max-backoff-ms:3600000}") long maxBackoffMs,
+                               @Value("${upload.deletion-outbox.max-attempts:20}") int maxAttempts,
+                               @Value("${upload.deletion-outbox.compact-threshold:10000}") int compactThreshold) {
+        this.cloudinaryService = cloudinaryService;
+        this.path = path;
+        this.batchSize = batchSize;
+        this.backoffMs = backoffMs;
+        this.maxBackoffMs = maxBackoffMs;
+        this.maxAttempts = maxAttempts;
+        this.compactThreshold = compactThreshold;
+    }
+
+    @PostConstruct
+    public synchronized void open() throws IOException {
+        Files.createDirectories(path.toAbsolutePath().getParent());
+        if (Files.isRegularFile(path)) {
+            replay(Files.readString(path, StandardCharsets.UTF_8));
+        }
+        // Start from a compacted log so leftovers of earlier runs do not pile up
+        compact();
+        if (!pending.isEmpty()) {
+            log.info("Image deletion outbox resumed with {} pending deletions", pending.size());
+        }
+    }
+
+    @PreDestroy
+    public synchronized void close() throws IOException {
+        if (channel != null) {
+            channel.close();
+        }
+    }
+
+    /**
+     * Record images for deletion; returns once they are on disk. Non-Cloudinary URLs are ignored.
+     */
+    public void enqueue(Collection<String> imageUrls) {
+        List<String> urls = imageUrls.stream()
+                .filter(url -> cloudinaryService.isCloudinaryUrl(url) && url.indexOf('\n') < 0)
+                .distinct()
+                .toList();
+        if (urls.isEmpty()) {
+            return;
+        }
+        synchronized (this) {
+            List<String> added = urls.stream().filter(url -> !pending.containsKey(url)).toList();
+            try {
+                append(ENQUEUED, added);
+            } catch (IOException e) {
+                // Not durable, but the images are still deleted instead of orphaned
+                log.error("Failed to record {} image deletions, deleting immediately: {}", added.size(), e.getMessage());
+                cloudinaryService.deleteImages(added.toArray(new String[0]));
+                return;
+            }
+            added.forEach(url -> pending.put(url, new Entry(url)));
+        }
+        log.debug("Queued {} images for deletion", urls.size());
+    }
+
+    public synchronized int pendingCount() {
+        return pending.size();
+    }
+
+    @Scheduled(fixedDelayString = "${upload.deletion-outbox.interval-ms:5000}")
+    public void drain() {
+        List<Entry> due = new ArrayList<>();
+        long now = System.currentTimeMillis();
+        synchronized (this) {
+            for (Entry entry : pending.values()) {
+                if (due.size() == batchSize) {
+                    break;
+                }
+                if (entry.nextAttemptAt <= now) {
+                    due.add(entry);
+                }
+            }
+        }
+        if (due.isEmpty()) {
+            return;
+        }
+
+        // Cloudinary calls happen outside the lock, so enqueueing never waits on them
+        List<String> done = new ArrayList<>();
+        List<Entry> failed = new ArrayList<>();
+        Map<String, Boolean> results = cloudinaryService.deleteImages(due.stream().map(e -> e.url).toArray(String[]::new));
+        for (Entry entry : due) {
+            if (Boolean.TRUE.equals(results.get(entry.url))) {
+                done.add(entry.url);
+            } else {
+                failed.add(entry);
+            }
+        }
+
+        synchronized (this) {
+            long retryBase = System.currentTimeMillis();
+            for (Entry entry : failed) {
+                entry.attempts++;
+                if (entry.attempts >= maxAttempts) {
+                    log.error("Giving up deleting image after {} attempts: {}", entry.attempts, entry.url);
+                    done.add(entry.url);
+                } else {
+                    long delay = backoffMs << Math.min(entry.attempts - 1, 30);
+                    entry.nextAttemptAt = retryBase + Math.min(maxBackoffMs, delay);
+                }
+            }
+            try {
+                append(DONE, done);
+                done.forEach(pending::remove);
+                if (records > compactThreshold && records > 2 * pending.size()) {
+                    compact();
+                }
+            } catch (IOException e) {
+                // Left pending: deleting again later is harmless
+                log.error("Failed to record completed image deletions: {}", e.getMessage());
+            }
+        }
+        log.info("Image deletion outbox: {} deleted, {} to retry, {} pending", done.size(), failed.size(), pendingCount());
+    }
+
+    // --- HELPER METHODS ---
+
+    private void replay(String content) {
+        // A crash can leave a torn final record; only newline-terminated records count
+        int end = content.lastIndexOf('\n');
+        if (end < 0) {
+            return;
+        }
+        for (String record : content.substring(0, end).split("\n")) {
+            if (record.length() < 2) {
+                continue;
+            }
+            String url = record.substring(1);
+            if (record.charAt(0) == ENQUEUED) {
+                pending.putIfAbsent(url, new Entry(url));
+            } else if (record.charAt(0) == DONE) {
+                pending.remove(url);
+            }
+        }
+    }
+
+    private void append(char type, List<String> urls) throws IOException {
+        if (urls.isEmpty()) {
+            return;
+        }
+        StringBuilder lines = new StringBuilder();
+        for (String url : urls) {
+            lines.append(type).append(url).append('\n');
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(lines.toString().getBytes(StandardCharsets.UTF_8));
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        channel.force(false);
+        records += urls.size();
+    }
+
+    /**
+     * Atomically replace the log with one record per pending deletion
+     */
+    private void compact() throws IOException {
+        Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+        StringBuilder content = new StringBuilder();
+        for (String url : pending.keySet()) {
+            content.append(ENQUEUED).append(url).append('\n');
+        }
+        try (FileChannel out = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer buffer = ByteBuffer.wrap(content.toString().getBytes(StandardCharsets.UTF_8));
+            while (buffer.hasRemaining()) {
+                out.write(buffer);
+            }
+            out.force(true);
+        }
+        if (channel != null) {
+            channel.close();
+        }
+        Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        channel = FileChannel.open(path, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        records = pending.size();
+    }
+}
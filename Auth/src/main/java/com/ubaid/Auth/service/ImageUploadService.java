@@ -0,0 +1,173 @@
+package com.ubaid.Auth.service;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Concurrent Cloudinary uploads for requests carrying several images.
+ * Runs on a dedicated bounded pool, with at most perRequestParallelism uploads of one request in
+ * flight and an overall deadline. Results keep the order of the files; if any upload fails or the
+ * deadline passes, every image of the request that did upload is deleted again.
+ */
+@Service
+@Slf4j
+public class ImageUploadService {
+
+    private final CloudinaryService cloudinaryService;
+    private final ImageDeletionOutbox deletionOutbox;
+    private final int perRequestParallelism;
+    private final long deadlineMs;
+    private final ThreadPoolExecutor uploaders;
+
+    /**
+     * Upload state of one request. Guarded by itself: once failed, late uploads delete themselves
+     * instead of publishing a URL nobody will save.
+     */
+    private static final class Batch {
+        final List<MultipartFile> files;
+        final String folder;
+        final String[] urls;
+        final AtomicInteger next = new AtomicInteger();
+        boolean failed;
+
+        Batch(List<MultipartFile> files, String folder) {
+            this.files = files;
+            this.folder = folder;
+            this.urls = new String[files.size()];
+        }
+    }
+
+    public ImageUploadService(CloudinaryService cloudinaryService,
+                              ImageDeletionOutbox deletionOutbox,
+                              @Value("${upload.images.threads:16}") int threads,
+                              @Value("${upload.images.queue-size:256}") int queueSize,
+                              @Value("${upload.images.per-request-parallelism:4}") int perRequestParallelism,
+                              @Value("${upload.images.deadline-ms:30000}") long deadlineMs) {
+        this.cloudinaryService = cloudinaryService;
+        this.deletionOutbox = deletionOutbox;
+        this.perRequestParallelism = perRequestParallelism;
+        this.deadlineMs = deadlineMs;
+        AtomicInteger threadCount = new AtomicInteger();
+        this.uploaders = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueSize), r -> {
+            Thread thread = new Thread(r, "image-upload-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Upload images concurrently into a Cloudinary folder
+     * @param files Files in the order their URLs should appear; null and empty files are skipped
+     * @return URLs of the uploaded images, in file order
+     * @throws IOException if any upload fails or the deadline passes; nothing stays uploaded then
+     */
+    public List<String> uploadAll(List<MultipartFile> files, String folder) throws IOException {
+        List<MultipartFile> toUpload = files == null ? List.of()
+                : files.stream().filter(f -> f != null && !f.isEmpty()).toList();
+        if (toUpload.isEmpty()) {
+            return new ArrayList<>();
+        }
+        if (toUpload.size() == 1) {
+            // Nothing to overlap; skip the hand-off
+            return new ArrayList<>(List.of(cloudinaryService.uploadImage(toUpload.get(0), folder)));
+        }
+
+        Batch batch = new Batch(toUpload, folder);
+        int workers = Math.min(perRequestParallelism, toUpload.size());
+        List<Future<?>> running = new ArrayList<>(workers);
+        try {
+            for (int i = 0; i < workers; i++) {
+                running.add(uploaders.submit(() -> {
+                    drain(batch);
+                    return null;
+                }));
+            }
+            long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(deadlineMs);
+            for (Future<?> worker : running) {
+                worker.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+            }
+        } catch (RejectedExecutionException e) {
+            abort(batch, running);
+            throw new IOException("Image upload capacity exhausted, try again later", e);
+        } catch (TimeoutException e) {
+            abort(batch, running);
+            throw new IOException("Image upload did not finish within " + deadlineMs + " ms", e);
+        } catch (ExecutionException e) {
+            abort(batch, running);
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException io) {
+                throw io;
+            }
+            throw new IOException("Failed to upload images: " + cause.getMessage(), cause);
+        } catch (InterruptedException e) {
+            abort(batch, running);
+            Thread.currentThread().interrupt();
+            throw new IOException("Image upload interrupted", e);
+        }
+
+        log.debug("Uploaded {} images to {} with {} workers", toUpload.size(), folder, workers);
+        return new ArrayList<>(Arrays.asList(batch.urls));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        uploaders.shutdownNow();
+    }
+
+    // --- HELPER METHODS ---
+
+    private void drain(Batch batch) throws IOException {
+        int index;
+        while ((index = batch.next.getAndIncrement()) < batch.files.size()) {
+            synchronized (batch) {
+                if (batch.failed) {
+                    return;
+                }
+            }
+            String url;
+            try {
+                url = cloudinaryService.uploadImage(batch.files.get(index), batch.folder);
+            } catch (IOException | RuntimeException e) {
+                // Stop the other workers now, not when the caller gets to this worker's future
+                synchronized (batch) {
+                    batch.failed = true;
+                }
+                throw e;
+            }
+            synchronized (batch) {
+                if (!batch.failed) {
+                    batch.urls[index] = url;
+                    continue;
+                }
+            }
+            deletionOutbox.enqueue(List.of(url));
+            return;
+        }
+    }
+
+    private void abort(Batch batch, List<Future<?>> running) {
+        String[] uploaded;
+        synchronized (batch) {
+            batch.failed = true;
+            uploaded = Arrays.stream(batch.urls).filter(Objects::nonNull).toArray(String[]::new);
+        }
+        // Queued workers need not start; running ones clean up after their current upload
+        running.forEach(worker -> worker.cancel(false));
+        if (uploaded.length > 0) {
+            log.warn("Cleaning up {} images of a failed upload batch", uploaded.length);
+            deletionOutbox.enqueue(Arrays.asList(uploaded));
+        }
+    }
+}
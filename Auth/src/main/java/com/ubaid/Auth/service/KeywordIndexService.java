@@ -0,0 +1,159 @@
+package com.ubaid.Auth.service;
+
+import com.ubaid.Auth.model.Product;
+import com.ubaid.Auth.search.TextTokenizer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * N-gram index over normalized product keywords.
+ * Answers "some product keyword contains the query keyword" without scanning the catalog:
+ * queries of up to 3 characters are a direct gram lookup, longer ones intersect their
+ * trigram lists and verify the few remaining candidate keywords.
+ */
+@Service
+@Slf4j
+public class KeywordIndexService implements CatalogChangeListener {
+
+    private static final int MAX_GRAM = 3;
+
+    // normalized keyword -> IDs of products tagged with it
+    private final Map<String, Set<String>> keywordProducts = new ConcurrentHashMap<>();
+
+    // 1-, 2- and 3-gram -> distinct keywords containing it
+    private final Map<String, Set<String>> gramKeywords = new ConcurrentHashMap<>();
+
+    // pId -> keywords currently indexed for it
+    private final Map<String, Set<String>> indexedKeywords = new ConcurrentHashMap<>();
+
+    @Override
+    public void onProductUpserted(Product previous, Product current) {
+        Set<String> newKeywords = normalizeAll(current.getKeywords());
+        Set<String> oldKeywords = indexedKeywords.getOrDefault(current.getpId(), Collections.emptySet());
+
+        for (String keyword : newKeywords) {
+            if (!oldKeywords.contains(keyword)) {
+                addKeyword(keyword, current.getpId());
+            }
+        }
+        for (String keyword : oldKeywords) {
+            if (!newKeywords.contains(keyword)) {
+                removeKeyword(keyword, current.getpId());
+            }
+        }
+        indexedKeywords.put(current.getpId(), newKeywords);
+    }
+
+    @Override
+    public void onProductRemoved(Product removed) {
+        Set<String> oldKeywords = indexedKeywords.remove(removed.getpId());
+        if (oldKeywords != null) {
+            oldKeywords.forEach(keyword -> removeKeyword(keyword, removed.getpId()));
+        }
+    }
+
+    /**
+     * Find products having at least one keyword that contains any of the query keywords
+     * @param queryKeywords Raw keywords from the request
+     * @return Matching product IDs in ascending order
+     */
+    public List<String> search(Collection<String> queryKeywords) {
+        Set<String> result = new HashSet<>();
+        for (String raw : queryKeywords) {
+            String query = TextTokenizer.normalize(raw);
+            if (query.isEmpty()) {
+                continue;
+            }
+            for (String keyword : matchingKeywords(query)) {
+                Set<String> ids = keywordProducts.get(keyword);
+                if (ids != null) {
+                    result.addAll(ids);
+                }
+            }
+        }
+        List<String> sorted = new ArrayList<>(result);
+        Collections.sort(sorted);
+        return sorted;
+    }
+
+    // --- HELPER METHODS ---
+
+    private Collection<String> matchingKeywords(String query) {
+        if (query.length() <= MAX_GRAM) {
+            return gramKeywords.getOrDefault(query, Collections.emptySet());
+        }
+
+        List<Set<String>> lists = new ArrayList<>();
+        for (String gram : grams(query, MAX_GRAM)) {
+            Set<String> list = gramKeywords.get(gram);
+            if (list == null) {
+                return Collections.emptyList();
+            }
+            lists.add(list);
+        }
+        lists.sort(Comparator.comparingInt(Set::size));
+
+        List<String> matches = new ArrayList<>();
+        for (String candidate : lists.get(0)) {
+            if (candidate.contains(query)) {
+                matches.add(candidate);
+            }
+        }
+        return matches;
+    }
+
+    private void addKeyword(String keyword, String pId) {
+        Set<String> ids = keywordProducts.computeIfAbsent(keyword, k -> {
+            for (int n = 1; n <= MAX_GRAM; n++) {
+                for (String gram : grams(k, n)) {
+                    gramKeywords.computeIfAbsent(gram, g -> ConcurrentHashMap.newKeySet()).add(k);
+                }
+            }
+            return ConcurrentHashMap.newKeySet();
+        });
+        ids.add(pId);
+    }
+
+    private void removeKeyword(String keyword, String pId) {
+        Set<String> ids = keywordProducts.get(keyword);
+        if (ids == null) {
+            return;
+        }
+        ids.remove(pId);
+        if (ids.isEmpty()) {
+            keywordProducts.remove(keyword);
+            for (int n = 1; n <= MAX_GRAM; n++) {
+                for (String gram : grams(keyword, n)) {
+                    gramKeywords.computeIfPresent(gram, (g, keywords) -> {
+                        keywords.remove(keyword);
+                        return keywords.isEmpty() ? null : keywords;
+                    });
+                }
+            }
+        }
+    }
+
+    private static Set<String> grams(String text, int n) {
+        Set<String> grams = new HashSet<>();
+        for (int i = 0; i + n <= text.length(); i++) {
+            grams.add(text.substring(i, i + n));
+        }
+        return grams;
+    }
+
+    private static Set<String> normalizeAll(List<String> keywords) {
+        Set<String> normalized = new HashSet<>();
+        if (keywords != null) {
+            for (String keyword : keywords) {
+                String value = TextTokenizer.normalize(keyword);
+                if (!value.isEmpty()) {
+                    normalized.add(value);
+                }
+            }
+        }
+        return normalized;
+    }
+}
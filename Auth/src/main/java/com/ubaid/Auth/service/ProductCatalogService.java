@@ -0,0 +1,350 @@
+package com.ubaid.Auth.service;
+
+import com.google.firebase.FirebaseApp;
+import com.google.firebase.database.*;
+import com.ubaid.Auth.mapper.FirebaseKeys;
+import com.ubaid.Auth.mapper.FirebaseSnapshotMapper;
+import com.ubaid.Auth.model.Product;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Live mirror of the Firebase "products" node.
+ * Subscribes once with a ChildEventListener and serves all public reads from memory,
+ * so requests no longer download the whole catalog.
+ * On startup the last disk checkpoint is loaded first, so the node serves immediately
+ * and the Firebase sync only has to reconcile what changed while it was down.
+ */
+@Service
+@Slf4j
+public class ProductCatalogService {
+
+    private static final String PRODUCTS_NODE = "products";
+    private static final int MAX_CONCURRENT_FETCHES = 8;
+    private static final long FETCH_TIMEOUT_MS = 10_000;
+
+    private final FirebaseApp firebaseApp;
+    private final ObjectProvider<CatalogChangeListener> listenerProvider;
+    private final CatalogSnapshotStore snapshotStore;
+    private final long fetchTimeoutMs;
+
+    // Sorted by key so listings keep the same order Firebase returned them in
+    private final ConcurrentNavigableMap<String, Product> products = new ConcurrentSkipListMap<>();
+    private final AtomicLong version = new AtomicLong();
+
+    private List<CatalogChangeListener> listeners = Collections.emptyList();
+    private DatabaseReference productsRef;
+    private ChildEventListener childEventListener;
+    private volatile boolean ready;
+    // Ready only counts as fresh once Firebase has been reconciled; before that it is the disk snapshot
+    private volatile boolean synced;
+    private volatile long checkpointedVersion = -1;
+
+    public ProductCatalogService(FirebaseApp firebaseApp, ObjectProvider<CatalogChangeListener> listenerProvider,
+                                 CatalogSnapshotStore snapshotStore) {
+        this(firebaseApp, listenerProvider, snapshotStore, FETCH_TIMEOUT_MS);
+    }
+
+    ProductCatalogService(FirebaseApp firebaseApp, ObjectProvider<CatalogChangeListener> listenerProvider,
+                          CatalogSnapshotStore snapshotStore, long fetchTimeoutMs) {
+        this.firebaseApp = firebaseApp;
+        this.listenerProvider = listenerProvider;
+        this.snapshotStore = snapshotStore;
+        this.fetchTimeoutMs = fetchTimeoutMs;
+    }
+
+    @PostConstruct
+    public void subscribe() {
+        listeners = listenerProvider.orderedStream().toList();
+        productsRef = FirebaseDatabase.getInstance(firebaseApp).getReference(PRODUCTS_NODE);
+        long startedAt = System.currentTimeMillis();
+        restoreSnapshot(startedAt);
+
+        childEventListener = new ChildEventListener() {
+            @Override
+            public void onChildAdded(DataSnapshot snapshot, String previousChildName) {
+                upsert(snapshot);
+            }
+
+            @Override
+            public void onChildChanged(DataSnapshot snapshot, String previousChildName) {
+                upsert(snapshot);
+            }
+
+            @Override
+            public void onChildRemoved(DataSnapshot snapshot) {
+                remove(snapshot.getKey());
+            }
+
+            @Override
+            public void onChildMoved(DataSnapshot snapshot, String previousChildName) {
+                // Ordering is handled locally
+            }
+
+            @Override
+            public void onCancelled(DatabaseError error) {
+                ready = false;
+                synced = false;
+                log.error("Product catalog subscription cancelled: {}", error.getMessage());
+            }
+        };
+        productsRef.addChildEventListener(childEventListener);
+
+        // Value events fire after the initial child events, and are served from the
+        // local cache of the child subscription, so this marks the end of the initial sync.
+        productsRef.addListenerForSingleValueEvent(new ValueEventListener() {
+            @Override
+            public void onDataChange(DataSnapshot snapshot) {
+                // Drop products restored from the checkpoint that were deleted while we were down
+                int stale = 0;
+                for (String pId : products.keySet()) {
+                    if (!snapshot.hasChild(pId)) {
+                        remove(pId);
+                        stale++;
+                    }
+                }
+                synced = true;
+                ready = true;
+                log.info("Product catalog synced: {} products in {} ms, {} stale removed (version {})",
+                        products.size(), System.currentTimeMillis() - startedAt, stale, version.get());
+            }
+
+            @Override
+            public void onCancelled(DatabaseError error) {
+                // Without the sync a restored snapshot would be served stale indefinitely
+                ready = false;
+                log.error("Initial product catalog sync failed, catalog is not serving: {}", error.getMessage());
+            }
+        });
+    }
+
+    @PreDestroy
+    public void unsubscribe() {
+        if (productsRef != null && childEventListener != null) {
+            productsRef.removeEventListener(childEventListener);
+        }
+        checkpoint();
+    }
+
+    /**
+     * Write the catalog to disk if it changed since the last checkpoint.
+     * Synchronized because shutdown and the scheduler can both checkpoint.
+     */
+    @Scheduled(initialDelayString = "${catalog.snapshot.interval-ms:300000}",
+            fixedDelayString = "${catalog.snapshot.interval-ms:300000}")
+    public synchronized void checkpoint() {
+        // A half-reconciled catalog is not checkpointed; it would persist products deleted while we were down
+        if (!snapshotStore.isEnabled() || !synced) {
+            return;
+        }
+        long current = version.get();
+        if (current == checkpointedVersion) {
+            return;
+        }
+        try {
+            snapshotStore.save(current, products.values());
+            checkpointedVersion = current;
+        } catch (IOException e) {
+            log.error("Failed to write catalog snapshot: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Whether public reads can be served, either from the live mirror or from the restored snapshot
+     */
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Whether the initial Firebase sync has completed. Ready but not synced means the catalog is
+     * served from the disk snapshot and may miss changes made while the node was down.
+     */
+    public boolean isSynced() {
+        return synced;
+    }
+
+    /**
+     * Monotonically increasing counter, bumped once for every change applied to the catalog.
+     */
+    public long getVersion() {
+        return version.get();
+    }
+
+    public int size() {
+        return products.size();
+    }
+
+    public Product getProduct(String pId) {
+        return pId != null ? products.get(pId) : null;
+    }
+
+    /**
+     * Weakly consistent, read-only view of all products ordered by pId.
+     */
+    public Collection<Product> getAllProducts() {
+        return Collections.unmodifiableCollection(products.values());
+    }
+
+    /**
+     * Look up many products at once. Served from memory once the catalog is ready;
+     * before that, falls back to direct Firebase reads with bounded fan-out.
+     * @param pIds Product IDs, duplicates allowed; IDs that are not valid Firebase keys are never found
+     * @return pId -> product for every ID that exists
+     */
+    public Map<String, Product> getProducts(Collection<String> pIds) throws InterruptedException {
+        Map<String, Product> found = new HashMap<>();
+        if (ready) {
+            for (String pId : pIds) {
+                Product product = getProduct(pId);
+                if (product != null) {
+                    found.put(pId, product);
+                }
+            }
+            return found;
+        }
+
+        // Keys Firebase cannot address would make ref.child throw; they cannot exist, so skip them
+        Set<String> distinct = new LinkedHashSet<>();
+        for (String pId : pIds) {
+            if (FirebaseKeys.isValid(pId)) {
+                distinct.add(pId);
+            }
+        }
+        Map<String, Product> fetched = new ConcurrentHashMap<>();
+        Semaphore permits = new Semaphore(MAX_CONCURRENT_FETCHES);
+        CountDownLatch done = new CountDownLatch(distinct.size());
+        DatabaseReference ref = FirebaseDatabase.getInstance(firebaseApp).getReference(PRODUCTS_NODE);
+        long deadline = System.currentTimeMillis() + fetchTimeoutMs;
+
+        for (String pId : distinct) {
+            if (!permits.tryAcquire(Math.max(0, deadline - System.currentTimeMillis()), TimeUnit.MILLISECONDS)) {
+                log.warn("Batch product fetch timed out waiting for a read slot");
+                break;
+            }
+            try {
+                ref.child(pId).addListenerForSingleValueEvent(new ValueEventListener() {
+                    @Override
+                    public void onDataChange(DataSnapshot snapshot) {
+                        try {
+                            Product product = FirebaseSnapshotMapper.toProduct(snapshot);
+                            if (product != null) {
+                                if (product.getpId() == null) {
+                                    product.setpId(snapshot.getKey());
+                                }
+                                fetched.put(pId, product);
+                            }
+                        } catch (DatabaseException e) {
+                            log.warn("Skipping malformed product {}: {}", pId, e.getMessage());
+                        } finally {
+                            permits.release();
+                            done.countDown();
+                        }
+                    }
+
+                    @Override
+                    public void onCancelled(DatabaseError error) {
+                        try {
+                            log.error("Error fetching product {}: {}", pId, error.getMessage());
+                        } finally {
+                            permits.release();
+                            done.countDown();
+                        }
+                    }
+                });
+            } catch (RuntimeException e) {
+                // The listener was never registered, so its callbacks will not release the slot
+                log.error("Error fetching product {}: {}", pId, e.getMessage());
+                permits.release();
+                done.countDown();
+            }
+        }
+
+        if (!done.await(Math.max(0, deadline - System.currentTimeMillis()), TimeUnit.MILLISECONDS)) {
+            log.warn("Batch product fetch returned partial results: {}/{}", fetched.size(), distinct.size());
+        }
+        found.putAll(fetched);
+        return found;
+    }
+
+    // --- HELPER METHODS ---
+
+    private void restoreSnapshot(long startedAt) {
+        if (!snapshotStore.isEnabled()) {
+            return;
+        }
+        CatalogSnapshotStore.Snapshot snapshot = snapshotStore.load();
+        if (snapshot == null) {
+            return;
+        }
+        // Derived indexes are not persisted; replaying through the listeners rebuilds them in memory
+        for (Product product : snapshot.products()) {
+            if (product.getpId() != null) {
+                apply(product.getpId(), product);
+            }
+        }
+        version.set(snapshot.version());
+        checkpointedVersion = snapshot.version();
+        ready = true;
+        log.info("Product catalog ready from snapshot, syncing with Firebase: {} products in {} ms (version {})",
+                products.size(), System.currentTimeMillis() - startedAt, snapshot.version());
+    }
+
+    private void upsert(DataSnapshot snapshot) {
+        Product product;
+        try {
+            product = FirebaseSnapshotMapper.toProduct(snapshot);
+        } catch (DatabaseException e) {
+            log.warn("Skipping malformed product {}: {}", snapshot.getKey(), e.getMessage());
+            return;
+        }
+        if (product == null) {
+            return;
+        }
+        if (product.getpId() == null) {
+            product.setpId(snapshot.getKey());
+        }
+        apply(snapshot.getKey(), product);
+    }
+
+    private void apply(String key, Product product) {
+        // Initial child events replay every product; unchanged ones restored from the snapshot are skipped
+        if (product.equals(products.get(key))) {
+            return;
+        }
+        Product previous = products.put(key, product);
+        for (CatalogChangeListener listener : listeners) {
+            try {
+                listener.onProductUpserted(previous, product);
+            } catch (Exception e) {
+                log.error("Catalog listener {} failed on upsert of {}", listener.getClass().getSimpleName(), key, e);
+            }
+        }
+        // Bumped after the listeners, so a reader that sees the new version also sees updated indexes
+        version.incrementAndGet();
+    }
+
+    private void remove(String pId) {
+        Product removed = products.remove(pId);
+        if (removed == null) {
+            return;
+        }
+        for (CatalogChangeListener listener : listeners) {
+            try {
+                listener.onProductRemoved(removed);
+            } catch (Exception e) {
+                log.error("Catalog listener {} failed on removal of {}", listener.getClass().getSimpleName(), pId, e);
+            }
+        }
+        version.incrementAndGet();
+    }
+}
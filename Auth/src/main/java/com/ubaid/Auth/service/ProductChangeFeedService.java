@@ -0,0 +1,389 @@
+package com.ubaid.Auth.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ubaid.Auth.model.Product;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Server-Sent Events fan-out of catalog changes.
+ * Fed by the catalog's single Firebase subscription; each event is encoded once and shared by
+ * all subscribers. Every subscriber has a bounded queue, and a client whose queue overflows is
+ * disconnected instead of holding up the others. Queues are written by a shared writer pool with
+ * at most one write per subscriber in flight; nothing waits on a write, and a write blocked for
+ * over send-timeout-ms evicts just that subscriber and interrupts its writer.
+ */
+@Service
+@Slf4j
+public class ProductChangeFeedService implements CatalogChangeListener {
+
+    public static final String EVENT_ADDED = "added";
+    public static final String EVENT_UPDATED = "updated";
+    public static final String EVENT_DELETED = "deleted";
+    public static final String EVENT_RESYNC = "resync";
+
+    private static final Set<ResponseBodyEmitter.DataWithMediaType> HEARTBEAT = SseEmitter.event().comment("keepalive").build();
+    private static final int MAX_FRAMES_PER_WRITE = 64;
+
+    /**
+     * One change, encoded lazily on first send so startup replays cost nothing without subscribers
+     */
+    private final class ChangeEvent {
+        final long seq;
+        final String type;
+        final String pId;
+        final Product product;
+        private final String data;
+        private volatile Set<ResponseBodyEmitter.DataWithMediaType> frame;
+
+        /**
+         * @param data Pre-encoded event data, or null to encode on first send
+         */
+        ChangeEvent(long seq, String type, String pId, Product product, String data) {
+            this.seq = seq;
+            this.type = type;
+            this.pId = pId;
+            this.product = product;
+            this.data = data;
+        }
+
+        Set<ResponseBodyEmitter.DataWithMediaType> frame() {
+            Set<ResponseBodyEmitter.DataWithMediaType> result = frame;
+            if (result == null) {
+                result = SseEmitter.event()
+                        .id(eventId(seq))
+                        .name(type)
+                        .data(data != null ? data : encode(type, pId, product))
+                        .build();
+                frame = result;
+            }
+            return result;
+        }
+    }
+
+    private final class Subscriber {
+        final SseEmitter emitter;
+        final BlockingQueue<Set<ResponseBodyEmitter.DataWithMediaType>> queue;
+        // Set while a write or completion task for this subscriber is queued or running
+        final AtomicBoolean scheduled = new AtomicBoolean();
+        final AtomicBoolean completed = new AtomicBoolean();
+        volatile boolean closed;
+        volatile Throwable closeError;
+        // Thread blocked in a send for this subscriber, for the watchdog to interrupt. Guarded by this.
+        Thread writingThread;
+
+        Subscriber(SseEmitter emitter) {
+            this.emitter = emitter;
+            this.queue = new ArrayBlockingQueue<>(bufferSize);
+        }
+    }
+
+    private final ObjectMapper objectMapper;
+    private final ProductJsonCacheService jsonCache;
+    private final int bufferSize;
+    private final int maxSubscribers;
+    private final long timeoutMs;
+    private final long sendTimeoutMs;
+    private final ThreadPoolExecutor writers;
+    private final ScheduledExecutorService watchdog;
+
+    // Incarnation prefix of event IDs: sequences restart with the process, so IDs from before are not resumable
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+    private final ChangeEvent[] ring;
+    private long nextSeq = 1;
+
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger slowDisconnects = new AtomicInteger();
+
+    public ProductChangeFeedService(ObjectMapper objectMapper,
+                                    ProductJsonCacheService jsonCache,
+                                    @Value("${catalog.stream.replay-size:4096}") int replaySize,
+                                    @Value("${catalog.stream.buffer-size:256}") int bufferSize,
+                                    @Value("${catalog.stream.max-subscribers:5000}") int maxSubscribers,
+                                    @Value("${catalog.stream.timeout-ms:1800000}") long timeoutMs,
+                                    @Value("${catalog.stream.writer-threads:16}") int writerThreads,
+                                    @Value("${catalog.stream.send-timeout-ms:10000}") long sendTimeoutMs) {
+        this.objectMapper = objectMapper;
+        this.jsonCache = jsonCache;
+        this.ring = new ChangeEvent[replaySize];
+        this.bufferSize = bufferSize;
+        this.maxSubscribers = maxSubscribers;
+        this.timeoutMs = timeoutMs;
+        this.sendTimeoutMs = sendTimeoutMs;
+        // Unbounded queue: it holds at most one task per subscriber, so writes wait for a thread instead of being rejected
+        AtomicInteger writerCount = new AtomicInteger();
+        this.writers = new ThreadPoolExecutor(writerThreads, writerThreads, 60L, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), r -> {
+            Thread thread = new Thread(r, "catalog-sse-writer-" + writerCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.writers.allowCoreThreadTimeOut(true);
+        this.watchdog = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "catalog-sse-watchdog");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @Override
+    public void onProductUpserted(Product previous, Product current) {
+        publish(previous == null ? EVENT_ADDED : EVENT_UPDATED, current.getpId(), current);
+    }
+
+    @Override
+    public void onProductRemoved(Product removed) {
+        publish(EVENT_DELETED, removed.getpId(), null);
+    }
+
+    /**
+     * Open a stream for a new client
+     * @param lastEventId Last-Event-ID sent by a reconnecting client, or null
+     * @return The emitter, or null if the node is at its subscriber limit
+     */
+    public SseEmitter subscribe(String lastEventId) {
+        if (subscribers.size() >= maxSubscribers) {
+            return null;
+        }
+        SseEmitter emitter = createEmitter(timeoutMs);
+        Subscriber subscriber = new Subscriber(emitter);
+        emitter.onCompletion(() -> close(subscriber));
+        emitter.onTimeout(() -> close(subscriber));
+        emitter.onError(e -> close(subscriber));
+
+        // Registering and queueing the replay under the publish lock leaves no gap between them
+        synchronized (ring) {
+            if (lastEventId != null && !lastEventId.isBlank()) {
+                List<ChangeEvent> missed = eventsAfter(lastEventId);
+                if (missed == null || missed.size() > bufferSize) {
+                    subscriber.queue.offer(SseEmitter.event().name(EVENT_RESYNC).data("{\"type\":\"resync\"}").build());
+                } else {
+                    missed.forEach(event -> subscriber.queue.offer(event.frame()));
+                }
+            }
+            subscribers.add(subscriber);
+        }
+        schedule(subscriber);
+        log.debug("SSE subscriber connected ({} active)", subscribers.size());
+        return emitter;
+    }
+
+    public int subscriberCount() {
+        return subscribers.size();
+    }
+
+    @Scheduled(fixedDelayString = "${catalog.stream.heartbeat-ms:15000}")
+    public void heartbeat() {
+        // Keeps idle connections open through proxies and detects clients that went away
+        for (Subscriber subscriber : subscribers) {
+            enqueue(subscriber, HEARTBEAT);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        for (Subscriber subscriber : subscribers) {
+            disconnect(subscriber, null);
+        }
+        writers.shutdown();
+        watchdog.shutdownNow();
+    }
+
+    SseEmitter createEmitter(long timeoutMs) {
+        return new SseEmitter(timeoutMs);
+    }
+
+    // --- HELPER METHODS ---
+
+    private void publish(String type, String pId, Product product) {
+        // Encoding is the expensive part, so it happens before the lock subscribers and replays contend on
+        String data = subscribers.isEmpty() ? null : encode(type, pId, product);
+        synchronized (ring) {
+            ChangeEvent event = new ChangeEvent(nextSeq++, type, pId, product, data);
+            ring[(int) (event.seq % ring.length)] = event;
+            if (subscribers.isEmpty()) {
+                return;
+            }
+            Set<ResponseBodyEmitter.DataWithMediaType> frame = event.frame();
+            for (Subscriber subscriber : subscribers) {
+                enqueue(subscriber, frame);
+            }
+        }
+    }
+
+    /**
+     * Buffered events after the given ID, or null if it is from another incarnation or already evicted
+     */
+    private List<ChangeEvent> eventsAfter(String lastEventId) {
+        int dash = lastEventId.lastIndexOf('-');
+        if (dash < 0 || !lastEventId.substring(0, dash).equals(epoch)) {
+            return null;
+        }
+        long lastSeq;
+        try {
+            lastSeq = Long.parseLong(lastEventId.substring(dash + 1));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+        long oldest = Math.max(1, nextSeq - ring.length);
+        if (lastSeq < oldest - 1 || lastSeq >= nextSeq) {
+            return null;
+        }
+        List<ChangeEvent> missed = new ArrayList<>();
+        for (long seq = lastSeq + 1; seq < nextSeq; seq++) {
+            missed.add(ring[(int) (seq % ring.length)]);
+        }
+        return missed;
+    }
+
+    private void enqueue(Subscriber subscriber, Set<ResponseBodyEmitter.DataWithMediaType> frame) {
+        if (subscriber.closed) {
+            return;
+        }
+        if (!subscriber.queue.offer(frame)) {
+            slowDisconnects.incrementAndGet();
+            log.warn("Disconnecting slow SSE subscriber: {} events pending ({} slow disconnects so far)",
+                    subscriber.queue.size(), slowDisconnects.get());
+            disconnect(subscriber, null);
+            return;
+        }
+        schedule(subscriber);
+    }
+
+    /**
+     * Hand a subscriber to the writer pool if it has frames to send or a completion pending,
+     * unless a task for it is already queued or running
+     */
+    private void schedule(Subscriber subscriber) {
+        if ((subscriber.closed || !subscriber.queue.isEmpty()) && subscriber.scheduled.compareAndSet(false, true)) {
+            try {
+                writers.execute(() -> write(subscriber));
+            } catch (RejectedExecutionException e) {
+                // Shutting down: nothing is sent any more, the container ends the response
+                subscriber.scheduled.set(false);
+            }
+        }
+    }
+
+    /**
+     * Send one batch of queued frames, or complete the emitter of a closed subscriber.
+     * Then requeue at the back of the pool instead of looping, so busy subscribers take turns.
+     */
+    private void write(Subscriber subscriber) {
+        try {
+            List<Set<ResponseBodyEmitter.DataWithMediaType>> batch = new ArrayList<>();
+            if (!subscriber.closed && subscriber.queue.drainTo(batch, MAX_FRAMES_PER_WRITE) > 0) {
+                send(subscriber, batch);
+            }
+        } finally {
+            subscriber.scheduled.set(false);
+        }
+        if (subscriber.closed) {
+            complete(subscriber);
+        } else {
+            schedule(subscriber);
+        }
+    }
+
+    private void send(Subscriber subscriber, List<Set<ResponseBodyEmitter.DataWithMediaType>> batch) {
+        synchronized (subscriber) {
+            subscriber.writingThread = Thread.currentThread();
+        }
+        ScheduledFuture<?> deadline = watchdog.schedule(() -> evictStalled(subscriber), sendTimeoutMs, TimeUnit.MILLISECONDS);
+        try {
+            for (Set<ResponseBodyEmitter.DataWithMediaType> frame : batch) {
+                subscriber.emitter.send(frame);
+            }
+        } catch (IOException | RuntimeException e) {
+            log.debug("SSE subscriber dropped: {}", e.getMessage());
+            disconnect(subscriber, e);
+        } finally {
+            deadline.cancel(false);
+            synchronized (subscriber) {
+                subscriber.writingThread = null;
+            }
+            // An interrupt from a watchdog that fired as the send returned must not reach the next task
+            Thread.interrupted();
+        }
+    }
+
+    private void evictStalled(Subscriber subscriber) {
+        synchronized (subscriber) {
+            if (subscriber.writingThread == null) {
+                return;
+            }
+            slowDisconnects.incrementAndGet();
+            log.warn("Disconnecting SSE subscriber: write blocked for over {} ms", sendTimeoutMs);
+            subscriber.closeError = new IOException("SSE write timed out");
+            close(subscriber);
+            // The writer completes the emitter once the interrupted send gives up
+            subscriber.writingThread.interrupt();
+        }
+    }
+
+    /**
+     * Stop sending to a subscriber and end its response. The emitter is completed by the writer pool
+     * after any in-flight send, because completing waits for the send to release the emitter.
+     * @param error Failure to complete with, or null for a normal completion
+     */
+    private void disconnect(Subscriber subscriber, Throwable error) {
+        if (subscriber.closeError == null) {
+            subscriber.closeError = error;
+        }
+        close(subscriber);
+        schedule(subscriber);
+    }
+
+    private void complete(Subscriber subscriber) {
+        if (!subscriber.completed.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            if (subscriber.closeError == null) {
+                subscriber.emitter.complete();
+            } else {
+                subscriber.emitter.completeWithError(subscriber.closeError);
+            }
+        } catch (RuntimeException e) {
+            // Already ended by the container
+            log.debug("Could not complete dropped SSE subscriber: {}", e.getMessage());
+        }
+    }
+
+    private void close(Subscriber subscriber) {
+        subscriber.closed = true;
+        subscriber.queue.clear();
+        subscribers.remove(subscriber);
+    }
+
+    private String eventId(long seq) {
+        return epoch + "-" + seq;
+    }
+
+    private String encode(String type, String pId, Product product) {
+        try {
+            StringBuilder data = new StringBuilder(product != null ? 640 : 64)
+                    .append("{\"type\":").append(objectMapper.writeValueAsString(type))
+                    .append(",\"pId\":").append(objectMapper.writeValueAsString(pId));
+            if (product != null) {
+                data.append(",\"product\":").append(new String(jsonCache.json(product), StandardCharsets.UTF_8));
+            }
+            return data.append('}').toString();
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
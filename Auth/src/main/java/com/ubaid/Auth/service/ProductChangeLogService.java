@@ -0,0 +1,240 @@
+package com.ubaid.Auth.service;
+
+import com.google.firebase.FirebaseApp;
+import com.google.firebase.database.*;
+import com.ubaid.Auth.model.Product;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Global change sequence for products, and a compacted in-memory log of the latest change per product.
+ * Seller writes stamp products with a sequence allocated from "catalogMeta/changeSeq"; deletes leave
+ * a tombstone under "productTombstones". Clients sync by asking for everything after the last sequence
+ * they saw, and are told to reload the whole catalog when that sequence has been compacted away.
+ */
+@Service
+@Slf4j
+public class ProductChangeLogService implements CatalogChangeListener {
+
+    private static final String SEQUENCE_PATH = "catalogMeta/changeSeq";
+    private static final String PRODUCTS_NODE = "products";
+    private static final String TOMBSTONES_NODE = "productTombstones";
+    private static final long ALLOCATE_TIMEOUT_MS = 10_000;
+
+    /**
+     * Latest change of one product; product is null for a deletion
+     */
+    public record Change(long seq, String pId, Product product, long observedAt) {
+        public boolean deleted() {
+            return product == null;
+        }
+    }
+
+    /**
+     * @param changes Changes after the requested sequence, oldest first; empty when resync is set
+     * @param nextSince Sequence to send as "since" on the next call
+     * @param hasMore More changes are available right away with nextSince; false while the rest is still settling
+     * @param resync The requested sequence is too old; reload the full catalog and continue from nextSince
+     */
+    public record ChangeBatch(List<Change> changes, long nextSince, boolean hasMore, boolean resync) {
+    }
+
+    private final FirebaseApp firebaseApp;
+    private final int maxEntries;
+    private final long settleMs;
+
+    private final NavigableMap<Long, Change> bySeq = new TreeMap<>();
+    private final Map<String, Change> byProduct = new HashMap<>();
+    // Every sequence at or below the floor has been compacted away
+    private long floor;
+
+    private DatabaseReference tombstonesRef;
+    private ChildEventListener tombstoneListener;
+
+    public ProductChangeLogService(FirebaseApp firebaseApp,
+                                   @Value("${catalog.changes.max-entries:50000}") int maxEntries,
+                                   @Value("${catalog.changes.settle-ms:5000}") long settleMs) {
+        this.firebaseApp = firebaseApp;
+        this.maxEntries = maxEntries;
+        this.settleMs = settleMs;
+    }
+
+    @PostConstruct
+    public void subscribe() {
+        tombstonesRef = FirebaseDatabase.getInstance(firebaseApp).getReference(TOMBSTONES_NODE);
+        tombstoneListener = new ChildEventListener() {
+            @Override
+            public void onChildAdded(DataSnapshot snapshot, String previousChildName) {
+                recordTombstone(snapshot);
+            }
+
+            @Override
+            public void onChildChanged(DataSnapshot snapshot, String previousChildName) {
+                recordTombstone(snapshot);
+            }
+
+            @Override
+            public void onChildRemoved(DataSnapshot snapshot) {
+                // Tombstone purged; the deletion stays in the log until compacted
+            }
+
+            @Override
+            public void onChildMoved(DataSnapshot snapshot, String previousChildName) {
+            }
+
+            @Override
+            public void onCancelled(DatabaseError error) {
+                log.error("Product tombstone subscription cancelled: {}", error.getMessage());
+            }
+        };
+        tombstonesRef.addChildEventListener(tombstoneListener);
+    }
+
+    @PreDestroy
+    public void unsubscribe() {
+        if (tombstonesRef != null && tombstoneListener != null) {
+            tombstonesRef.removeEventListener(tombstoneListener);
+        }
+    }
+
+    @Override
+    public void onProductUpserted(Product previous, Product current) {
+        // Products written before sequences existed are only delivered by a full reload
+        if (current.getChangeSeq() > 0) {
+            record(new Change(current.getChangeSeq(), current.getpId(), current, System.currentTimeMillis()));
+        }
+    }
+
+    @Override
+    public void onProductRemoved(Product removed) {
+        // Deletions are recorded from their tombstone, which carries the sequence
+    }
+
+    /**
+     * Allocate the next global change sequence with a Firebase transaction
+     */
+    public long nextSequence() throws InterruptedException, ExecutionException, TimeoutException {
+        CompletableFuture<Long> future = new CompletableFuture<>();
+        FirebaseDatabase.getInstance(firebaseApp).getReference(SEQUENCE_PATH).runTransaction(new Transaction.Handler() {
+            @Override
+            public Transaction.Result doTransaction(MutableData currentData) {
+                Long current = currentData.getValue(Long.class);
+                currentData.setValue((current != null ? current : 0L) + 1);
+                return Transaction.success(currentData);
+            }
+
+            @Override
+            public void onComplete(DatabaseError error, boolean committed, DataSnapshot currentData) {
+                if (error != null) {
+                    future.completeExceptionally(error.toException());
+                } else if (!committed) {
+                    future.completeExceptionally(new IllegalStateException("Change sequence transaction was not committed"));
+                } else {
+                    future.complete(currentData.getValue(Long.class));
+                }
+            }
+        });
+        return future.get(ALLOCATE_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Delete a product and leave a tombstone for delta sync, in one atomic multi-path update
+     */
+    public void deleteWithTombstone(String pId, long seq) {
+        Map<String, Object> tombstone = new HashMap<>();
+        tombstone.put("pId", pId);
+        tombstone.put("changeSeq", seq);
+        tombstone.put("deletedAt", ServerValue.TIMESTAMP);
+
+        Map<String, Object> updates = new HashMap<>();
+        updates.put(PRODUCTS_NODE + "/" + pId, null);
+        updates.put(TOMBSTONES_NODE + "/" + pId, tombstone);
+        FirebaseDatabase.getInstance(firebaseApp).getReference().updateChildrenAsync(updates);
+    }
+
+    /**
+     * Changes after a sequence
+     * @param since Last sequence the client has applied; 0 means it has nothing yet
+     * @param limit Maximum number of changes to return
+     */
+    public synchronized ChangeBatch changesSince(long since, int limit) {
+        long stable = stableSequence();
+        if (since <= 0 || since < floor) {
+            return new ChangeBatch(Collections.emptyList(), stable, false, true);
+        }
+
+        List<Change> changes = new ArrayList<>(Math.min(limit, 128));
+        Iterator<Change> iterator = bySeq.tailMap(since, false).values().iterator();
+        while (iterator.hasNext() && changes.size() < limit) {
+            changes.add(iterator.next());
+        }
+
+        long last = changes.isEmpty() ? since : changes.get(changes.size() - 1).seq();
+        // Never move the cursor past the settled point, or a write that landed late would be skipped
+        long nextSince = Math.max(since, Math.min(last, stable));
+        // Held back by unsettled changes, the next call would return this page again; let the client poll later
+        boolean hasMore = iterator.hasNext() && nextSince == last;
+        return new ChangeBatch(changes, nextSince, hasMore, false);
+    }
+
+    public synchronized long latestSequence() {
+        return bySeq.isEmpty() ? floor : bySeq.lastKey();
+    }
+
+    // --- HELPER METHODS ---
+
+    private void recordTombstone(DataSnapshot snapshot) {
+        Object seq = snapshot.child("changeSeq").getValue();
+        if (!(seq instanceof Number number)) {
+            log.warn("Ignoring product tombstone {} without a change sequence", snapshot.getKey());
+            return;
+        }
+        record(new Change(number.longValue(), snapshot.getKey(), null, System.currentTimeMillis()));
+    }
+
+    private synchronized void record(Change change) {
+        if (change.seq() <= floor) {
+            return;
+        }
+        Change existing = byProduct.get(change.pId());
+        if (existing != null) {
+            if (existing.seq() >= change.seq()) {
+                return;
+            }
+            bySeq.remove(existing.seq());
+        }
+        byProduct.put(change.pId(), change);
+        bySeq.put(change.seq(), change);
+
+        // Compaction keeps one entry per product; beyond that, the oldest entries are dropped
+        while (bySeq.size() > maxEntries) {
+            Change oldest = bySeq.pollFirstEntry().getValue();
+            byProduct.remove(oldest.pId());
+            floor = oldest.seq();
+        }
+    }
+
+    /**
+     * Highest sequence that is safe to hand out as a cursor. A write holding a lower sequence may land
+     * slightly after one holding a higher sequence, so only changes observed at least settleMs ago count.
+     */
+    private long stableSequence() {
+        long cutoff = System.currentTimeMillis() - settleMs;
+        // Recent changes are few, so walking down from the newest is cheap
+        for (Change change : bySeq.descendingMap().values()) {
+            if (change.observedAt() <= cutoff) {
+                return change.seq();
+            }
+        }
+        return floor;
+    }
+}
@@ -0,0 +1,210 @@
+package com.ubaid.Auth.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ubaid.Auth.mapper.ProductDtoMapper;
+import com.ubaid.Auth.mapper.PublicProductField;
+import com.ubaid.Auth.model.Product;
+import com.ubaid.Auth.model.RatingSummary;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Pre-encoded UTF-8 JSON of each product's public DTO.
+ * An entry is only served while it was built from the exact Product and rating summary instances
+ * currently held in memory, so a concurrent update can never leak a stale encoding.
+ * Requests for a subset of fields bypass the cache and stream the projection directly.
+ * Responses are written straight to the response stream, so cached encodings are never copied
+ * into an intermediate buffer.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ProductJsonCacheService implements CatalogChangeListener {
+
+    private static final byte[] OPEN_ARRAY = {'['};
+    private static final byte[] CLOSE_ARRAY = {']'};
+    private static final byte[] COMMA = {','};
+    private static final byte[] PID_FIELD = "{\"pId\":".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] FOUND_FIELDS = ",\"found\":true,\"product\":".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] NOT_FOUND_FIELDS = ",\"found\":false}".getBytes(StandardCharsets.UTF_8);
+
+    private record Entry(Product source, RatingSummary rating, byte[] json) {
+    }
+
+    private final ObjectMapper objectMapper;
+    private final RatingSummaryService ratingSummaries;
+    private final Map<String, Entry> cache = new ConcurrentHashMap<>();
+
+    @Override
+    public void onProductUpserted(Product previous, Product current) {
+        cache.remove(current.getpId());
+    }
+
+    @Override
+    public void onProductRemoved(Product removed) {
+        cache.remove(removed.getpId());
+    }
+
+    /**
+     * Encoded public DTO of a product, built on first use
+     */
+    public byte[] json(Product product) {
+        Entry entry = cache.get(product.getpId());
+        RatingSummary rating = ratingSummaries.get(product.getpId());
+        if (entry != null && entry.source() == product && entry.rating() == rating) {
+            return entry.json();
+        }
+        byte[] json = encode(product, rating);
+        cache.put(product.getpId(), new Entry(product, rating, json));
+        return json;
+    }
+
+    /**
+     * Encoded public DTO of a product, limited to the given fields
+     * @param fields Selected fields, or null for the full (cached) DTO
+     */
+    public byte[] json(Product product, Set<PublicProductField> fields) {
+        if (fields == null) {
+            return json(product);
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream(32 * fields.size());
+        try (JsonGenerator gen = objectMapper.getFactory().createGenerator(out)) {
+            PublicProductField.writeProjection(gen, product, ratingSummaries.get(product.getpId()), fields);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * JSON array of the products' public DTOs limited to the given fields, in the given order.
+     * Only for responses that are cached as bytes; everything else streams with {@link #writeArray}.
+     * @param fields Selected fields, or null for full DTOs
+     */
+    public byte[] jsonArray(Collection<Product> products, Set<PublicProductField> fields) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(estimateSize(products, fields));
+        try {
+            writeArray(out, products, fields);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * Write a JSON array of the products' public DTOs, copying cached encodings straight to the stream
+     * @param fields Selected fields, or null for full DTOs
+     */
+    public void writeArray(OutputStream out, Collection<Product> products, Set<PublicProductField> fields) throws IOException {
+        if (fields != null) {
+            // One generator for the whole array; nothing is cached for partial projections
+            try (JsonGenerator gen = createGenerator(out)) {
+                gen.writeStartArray();
+                for (Product product : products) {
+                    PublicProductField.writeProjection(gen, product, ratingSummaries.get(product.getpId()), fields);
+                }
+                gen.writeEndArray();
+            }
+            return;
+        }
+        out.write(OPEN_ARRAY);
+        boolean first = true;
+        for (Product product : products) {
+            if (!first) {
+                out.write(COMMA);
+            }
+            out.write(json(product));
+            first = false;
+        }
+        out.write(CLOSE_ARRAY);
+    }
+
+    /**
+     * Write a JSON object with the given scalar fields followed by a products array
+     * @param fields Fields written before the array, serialized with Jackson
+     * @param productsField Name of the array field
+     * @param products Products in response order
+     * @param productFields Selected product fields, or null for full DTOs
+     */
+    public void writeObject(OutputStream out, Map<String, ?> fields, String productsField, Collection<Product> products,
+                            Set<PublicProductField> productFields) throws IOException {
+        out.write('{');
+        for (Map.Entry<String, ?> field : fields.entrySet()) {
+            out.write(objectMapper.writeValueAsBytes(field.getKey()));
+            out.write(':');
+            out.write(objectMapper.writeValueAsBytes(field.getValue()));
+            out.write(',');
+        }
+        out.write(objectMapper.writeValueAsBytes(productsField));
+        out.write(':');
+        writeArray(out, products, productFields);
+        out.write('}');
+    }
+
+    /**
+     * Write a JSON array with one entry per requested ID, in request order:
+     * {"pId":..,"found":true,"product":{..}} or {"pId":..,"found":false}
+     * @param fields Selected product fields, or null for full DTOs
+     */
+    public void writeBatch(OutputStream out, List<String> pIds, Map<String, Product> found,
+                           Set<PublicProductField> fields) throws IOException {
+        out.write('[');
+        for (int i = 0; i < pIds.size(); i++) {
+            if (i > 0) {
+                out.write(',');
+            }
+            Product product = found.get(pIds.get(i));
+            out.write(PID_FIELD);
+            out.write(objectMapper.writeValueAsBytes(pIds.get(i)));
+            if (product != null) {
+                out.write(FOUND_FIELDS);
+                out.write(json(product, fields));
+                out.write('}');
+            } else {
+                out.write(NOT_FOUND_FIELDS);
+            }
+        }
+        out.write(']');
+    }
+
+    public int size() {
+        return cache.size();
+    }
+
+    // --- HELPER METHODS ---
+
+    /**
+     * Generator that leaves the target open, so callers can keep writing to a response stream
+     */
+    private JsonGenerator createGenerator(OutputStream out) throws IOException {
+        return objectMapper.getFactory().createGenerator(out).disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+    }
+
+    private byte[] encode(Product product, RatingSummary rating) {
+        try {
+            return objectMapper.writeValueAsBytes(ProductDtoMapper.toPublicDto(product, rating));
+        } catch (JsonProcessingException e) {
+            log.error("Failed to encode product {}", product.getpId(), e);
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static int estimateSize(Collection<Product> products, Set<PublicProductField> fields) {
+        int perProduct = fields == null ? 512 : 32 * fields.size();
+        return Math.min(products.size(), 4096) * perProduct + 2;
+    }
+}
@@ -0,0 +1,128 @@
+package com.ubaid.Auth.service;
+
+import com.ubaid.Auth.model.Product;
+import com.ubaid.Auth.search.PrefixTrie;
+import com.ubaid.Auth.search.TextTokenizer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Case-insensitive prefix index over product names and brand names,
+ * ranked by pCreditScore. Backs autocomplete and name search.
+ */
+@Service
+@Slf4j
+public class ProductNameIndexService implements CatalogChangeListener {
+
+    private static final int CACHED_SUGGESTIONS = 20;
+
+    private final Map<String, Integer> creditScores = new ConcurrentHashMap<>();
+    private final Comparator<String> byCreditScore = Comparator
+            .comparing((String pId) -> creditScores.getOrDefault(pId, 0)).reversed()
+            .thenComparing(Comparator.naturalOrder());
+
+    private final PrefixTrie nameTrie = new PrefixTrie(byCreditScore, CACHED_SUGGESTIONS);
+    private final PrefixTrie brandTrie = new PrefixTrie(byCreditScore, CACHED_SUGGESTIONS);
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    @Override
+    public void onProductUpserted(Product previous, Product current) {
+        lock.writeLock().lock();
+        try {
+            if (previous != null) {
+                unindex(previous);
+            }
+            creditScores.put(current.getpId(), current.getpCreditScore());
+            // Names are indexed even when they normalize to nothing, so an empty query still lists every named product
+            if (current.getpName() != null) {
+                nameTrie.insert(TextTokenizer.normalize(current.getpName()), current.getpId());
+            }
+            index(brandTrie, current.getpBrandName(), current.getpId());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void onProductRemoved(Product removed) {
+        lock.writeLock().lock();
+        try {
+            unindex(removed);
+            creditScores.remove(removed.getpId());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Best-ranked products whose name or brand starts with the prefix
+     * @param prefix Typed prefix, matched case-insensitively
+     * @param limit Maximum number of product IDs to return
+     * @return Product IDs, highest credit score first
+     */
+    public List<String> suggest(String prefix, int limit) {
+        String key = TextTokenizer.normalize(prefix);
+        if (key.isEmpty()) {
+            return Collections.emptyList();
+        }
+        lock.readLock().lock();
+        try {
+            // Both lists are already ranked, so a merge keeps the overall order
+            Set<String> merged = new LinkedHashSet<>();
+            Iterator<String> names = nameTrie.top(key, limit).iterator();
+            Iterator<String> brands = brandTrie.top(key, limit).iterator();
+            String nextName = names.hasNext() ? names.next() : null;
+            String nextBrand = brands.hasNext() ? brands.next() : null;
+            while (merged.size() < limit && (nextName != null || nextBrand != null)) {
+                if (nextBrand == null || (nextName != null && byCreditScore.compare(nextName, nextBrand) <= 0)) {
+                    merged.add(nextName);
+                    nextName = names.hasNext() ? names.next() : null;
+                } else {
+                    merged.add(nextBrand);
+                    nextBrand = brands.hasNext() ? brands.next() : null;
+                }
+            }
+            return new ArrayList<>(merged);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * All products whose name starts with the prefix, highest credit score first.
+     * An empty prefix matches every product that has a name, as the original startsWith scan did.
+     */
+    public List<String> searchByName(String prefix) {
+        String key = TextTokenizer.normalize(prefix);
+        lock.readLock().lock();
+        try {
+            return nameTrie.all(key);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // --- HELPER METHODS ---
+
+    private void unindex(Product product) {
+        if (product.getpName() != null) {
+            nameTrie.remove(TextTokenizer.normalize(product.getpName()), product.getpId());
+        }
+        String brand = TextTokenizer.normalize(product.getpBrandName());
+        if (!brand.isEmpty()) {
+            brandTrie.remove(brand, product.getpId());
+        }
+    }
+
+    private static void index(PrefixTrie trie, String value, String pId) {
+        String key = TextTokenizer.normalize(value);
+        if (!key.isEmpty()) {
+            trie.insert(key, pId);
+        }
+    }
+}
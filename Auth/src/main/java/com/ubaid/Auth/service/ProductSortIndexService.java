@@ -0,0 +1,109 @@
+package com.ubaid.Auth.service;
+
+import com.ubaid.Auth.model.Product;
+import com.ubaid.Auth.search.ProductSortField;
+import com.ubaid.Auth.search.SortKey;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.function.Supplier;
+
+/**
+ * One incrementally maintained sorted view of the catalog per {@link ProductSortField}.
+ * Pages are read with a tail-set seek from the cursor, so a page costs O(log N + limit)
+ * and stays stable while products are added or removed.
+ */
+@Service
+@Slf4j
+public class ProductSortIndexService implements CatalogChangeListener {
+
+    private final Map<ProductSortField, NavigableSet<SortKey>> views = new EnumMap<>(ProductSortField.class);
+
+    // pId -> keys currently indexed for it, one per sort field
+    private final Map<String, SortKey[]> indexedKeys = new ConcurrentHashMap<>();
+
+    public ProductSortIndexService() {
+        this(ConcurrentSkipListSet::new);
+    }
+
+    ProductSortIndexService(Supplier<NavigableSet<SortKey>> viewFactory) {
+        for (ProductSortField field : ProductSortField.values()) {
+            views.put(field, viewFactory.get());
+        }
+    }
+
+    @Override
+    public void onProductUpserted(Product previous, Product current) {
+        ProductSortField[] fields = ProductSortField.values();
+        SortKey[] oldKeys = indexedKeys.get(current.getpId());
+        SortKey[] newKeys = new SortKey[fields.length];
+
+        // Add every new key, switch the indexed keys, then drop the stale ones, so readers never
+        // miss the product: page() skips whichever of two keys is not the indexed one, so they
+        // never see it twice either
+        for (ProductSortField field : fields) {
+            SortKey key = new SortKey(field.valueOf(current), current.getpId());
+            newKeys[field.ordinal()] = key;
+            views.get(field).add(key);
+        }
+        indexedKeys.put(current.getpId(), newKeys);
+        if (oldKeys != null) {
+            for (ProductSortField field : fields) {
+                if (!oldKeys[field.ordinal()].equals(newKeys[field.ordinal()])) {
+                    views.get(field).remove(oldKeys[field.ordinal()]);
+                }
+            }
+        }
+    }
+
+    @Override
+    public void onProductRemoved(Product removed) {
+        SortKey[] oldKeys = indexedKeys.remove(removed.getpId());
+        if (oldKeys != null) {
+            for (ProductSortField field : ProductSortField.values()) {
+                views.get(field).remove(oldKeys[field.ordinal()]);
+            }
+        }
+    }
+
+    /**
+     * Read one page of a sorted view. The first page of either direction is the top-K
+     * of the view, so it costs O(limit) regardless of catalog size.
+     * @param field Sort field
+     * @param descending Walk the view from the highest value down
+     * @param after Key of the last item of the previous page, or null for the first page
+     * @param limit Maximum number of keys to return
+     * @return Keys in the requested order
+     */
+    public List<SortKey> page(ProductSortField field, boolean descending, SortKey after, int limit) {
+        NavigableSet<SortKey> view = views.get(field);
+        Iterator<SortKey> iterator;
+        if (descending) {
+            iterator = after == null ? view.descendingIterator() : view.headSet(after, false).descendingIterator();
+        } else {
+            iterator = after == null ? view.iterator() : view.tailSet(after, false).iterator();
+        }
+
+        List<SortKey> page = new ArrayList<>(Math.min(limit, 128));
+        while (page.size() < limit && iterator.hasNext()) {
+            SortKey key = iterator.next();
+            if (isCurrent(field, key)) {
+                page.add(key);
+            }
+        }
+        return page;
+    }
+
+    // --- HELPER METHODS ---
+
+    /**
+     * False for the key of a product that is mid-update and no longer (or not yet) its indexed one
+     */
+    private boolean isCurrent(ProductSortField field, SortKey key) {
+        SortKey[] current = indexedKeys.get(key.pId());
+        return current == null || current[field.ordinal()].equals(key);
+    }
+}
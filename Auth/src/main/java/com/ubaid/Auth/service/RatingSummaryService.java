@@ -0,0 +1,194 @@
+package com.ubaid.Auth.service;
+
+import com.google.firebase.FirebaseApp;
+import com.google.firebase.database.*;
+import com.ubaid.Auth.mapper.FirebaseSnapshotMapper;
+import com.ubaid.Auth.model.RatingSummary;
+import com.ubaid.Auth.model.Review;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Per-product rating aggregates (count, sum, star histogram).
+ * Each new review bumps "productRatings/{productId}" in a Firebase transaction, and a single
+ * subscription mirrors that node in memory, so listings show ratings without reading reviews.
+ */
+@Service
+@Slf4j
+public class RatingSummaryService {
+
+    private static final String RATINGS_NODE = "productRatings";
+
+    private final FirebaseApp firebaseApp;
+    private final ReviewStorageService reviewStorage;
+
+    // Entries are replaced, never mutated, so callers can cache by instance
+    private final Map<String, RatingSummary> summaries = new ConcurrentHashMap<>();
+    private final AtomicLong version = new AtomicLong();
+
+    private DatabaseReference ratingsRef;
+    private ChildEventListener ratingsListener;
+
+    public RatingSummaryService(FirebaseApp firebaseApp, ReviewStorageService reviewStorage) {
+        this.firebaseApp = firebaseApp;
+        this.reviewStorage = reviewStorage;
+    }
+
+    @PostConstruct
+    public void subscribe() {
+        ratingsRef = FirebaseDatabase.getInstance(firebaseApp).getReference(RATINGS_NODE);
+        ratingsListener = new ChildEventListener() {
+            @Override
+            public void onChildAdded(DataSnapshot snapshot, String previousChildName) {
+                store(snapshot);
+            }
+
+            @Override
+            public void onChildChanged(DataSnapshot snapshot, String previousChildName) {
+                store(snapshot);
+            }
+
+            @Override
+            public void onChildRemoved(DataSnapshot snapshot) {
+                if (summaries.remove(snapshot.getKey()) != null) {
+                    version.incrementAndGet();
+                }
+            }
+
+            @Override
+            public void onChildMoved(DataSnapshot snapshot, String previousChildName) {
+            }
+
+            @Override
+            public void onCancelled(DatabaseError error) {
+                log.error("Rating summary subscription cancelled: {}", error.getMessage());
+            }
+        };
+        ratingsRef.addChildEventListener(ratingsListener);
+    }
+
+    @PreDestroy
+    public void unsubscribe() {
+        if (ratingsRef != null && ratingsListener != null) {
+            ratingsRef.removeEventListener(ratingsListener);
+        }
+    }
+
+    /**
+     * Current aggregate of a product, or null if it has no ratings
+     */
+    public RatingSummary get(String productId) {
+        return productId != null ? summaries.get(productId) : null;
+    }
+
+    /**
+     * Changes whenever any product's summary changes; responses that embed ratings are cached under it
+     */
+    public long getVersion() {
+        return version.get();
+    }
+
+    /**
+     * Add one rating to a product's aggregate. Runs as a Firebase transaction, so concurrent
+     * reviews on any node are all counted; completion is logged, not awaited.
+     * Not atomic with storing the review: a transaction cannot be part of a multi-path update,
+     * so a crash or failed transaction in between leaves a stored review uncounted until
+     * {@link #rebuild()} (POST /api/admin/ratings/rebuild) recomputes the summaries.
+     */
+    public void recordRating(String productId, int rating) {
+        if (!RatingSummary.isValidRating(rating)) {
+            throw new IllegalArgumentException("Rating must be between " + RatingSummary.MIN_RATING
+                    + " and " + RatingSummary.MAX_RATING);
+        }
+        FirebaseDatabase.getInstance(firebaseApp).getReference(RATINGS_NODE).child(productId)
+                .runTransaction(new Transaction.Handler() {
+                    @Override
+                    public Transaction.Result doTransaction(MutableData currentData) {
+                        currentData.setValue(toMap(withRating(currentData.getValue(), rating)));
+                        return Transaction.success(currentData);
+                    }
+
+                    @Override
+                    public void onComplete(DatabaseError error, boolean committed, DataSnapshot currentData) {
+                        if (error != null || !committed) {
+                            log.error("Failed to update rating summary of product {}: {}", productId,
+                                    error != null ? error.getMessage() : "not committed");
+                        }
+                    }
+                });
+    }
+
+    /**
+     * Recompute every aggregate from the stored reviews and overwrite the stored summaries
+     * @return Number of products with at least one review
+     */
+    public int rebuild() throws InterruptedException, ExecutionException {
+        Map<String, RatingSummary> rebuilt = summarize(reviewStorage.loadAll());
+
+        Map<String, Object> node = new HashMap<>();
+        rebuilt.forEach((productId, summary) -> node.put(productId, toMap(summary)));
+        FirebaseDatabase.getInstance(firebaseApp).getReference(RATINGS_NODE).setValueAsync(node).get();
+        log.info("Rebuilt rating summaries for {} products", rebuilt.size());
+        return rebuilt.size();
+    }
+
+    // --- HELPER METHODS ---
+
+    private void store(DataSnapshot snapshot) {
+        try {
+            store(snapshot.getKey(), FirebaseSnapshotMapper.toRatingSummary(snapshot));
+        } catch (DatabaseException e) {
+            log.warn("Skipping malformed rating summary {}: {}", snapshot.getKey(), e.getMessage());
+        }
+    }
+
+    void store(String productId, RatingSummary summary) {
+        if (summary != null) {
+            RatingSummary previous = summaries.put(productId, summary);
+            // Cached search responses embed ratings; replays of unchanged summaries leave them valid
+            if (!summary.equals(previous)) {
+                version.incrementAndGet();
+            }
+        }
+    }
+
+    /**
+     * Transaction body of recordRating: the stored node, if any, plus one rating
+     */
+    @SuppressWarnings("unchecked")
+    static RatingSummary withRating(Object stored, int rating) {
+        RatingSummary summary = stored instanceof Map
+                ? FirebaseSnapshotMapper.toRatingSummary((Map<String, Object>) stored)
+                : new RatingSummary();
+        summary.add(rating);
+        return summary;
+    }
+
+    /**
+     * Aggregates by product ID, skipping reviews without a product or with an out-of-range rating
+     */
+    static Map<String, RatingSummary> summarize(Collection<Review> reviews) {
+        Map<String, RatingSummary> summaries = new HashMap<>();
+        for (Review review : reviews) {
+            if (review.getProductId() != null && RatingSummary.isValidRating(review.getRating())) {
+                summaries.computeIfAbsent(review.getProductId(), id -> new RatingSummary()).add(review.getRating());
+            }
+        }
+        return summaries;
+    }
+
+    static Map<String, Object> toMap(RatingSummary summary) {
+        Map<String, Object> values = new HashMap<>();
+        values.put("count", summary.getCount());
+        values.put("sum", summary.getSum());
+        values.put("histogram", new ArrayList<>(summary.getHistogram()));
+        return values;
+    }
+}
@@ -0,0 +1,255 @@
+package com.ubaid.Auth.service;
+
+import com.google.firebase.FirebaseApp;
+import com.google.firebase.database.*;
+import com.ubaid.Auth.mapper.FirebaseKeys;
+import com.ubaid.Auth.mapper.FirebaseSnapshotMapper;
+import com.ubaid.Auth.model.Review;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Reviews bucketed per product under "productReviews/{productId}/{reviewId}".
+ * Review IDs are push IDs, so key order is time order and a page is one keyed range query.
+ * While reviews.legacy-read.enabled is set, reads also merge the old flat "reviews" node,
+ * until the migration has copied everything over.
+ */
+@Service
+@Slf4j
+public class ReviewStorageService {
+
+    private static final String BUCKETS_NODE = "productReviews";
+    private static final String LEGACY_NODE = "reviews";
+    private static final int MIGRATION_BATCH_SIZE = 500;
+
+    /**
+     * @param reviews Newest first
+     * @param nextBefore Cursor for the next (older) page, or null on the last page
+     */
+    public record ReviewPage(List<Review> reviews, String nextBefore) {
+    }
+
+    /**
+     * @param migrated Reviews copied into their product bucket
+     * @param skipped Reviews left behind: malformed, or with a product ID that cannot be a bucket key
+     */
+    public record MigrationResult(int migrated, int skipped) {
+    }
+
+    private final FirebaseApp firebaseApp;
+    private final boolean legacyRead;
+
+    public ReviewStorageService(FirebaseApp firebaseApp,
+                                @Value("${reviews.legacy-read.enabled:true}") boolean legacyRead) {
+        this.firebaseApp = firebaseApp;
+        this.legacyRead = legacyRead;
+    }
+
+    /**
+     * Assign a time-ordered ID to the review and store it in its product's bucket
+     */
+    public void save(Review review) {
+        DatabaseReference bucket = buckets().child(review.getProductId());
+        String reviewId = bucket.push().getKey();
+        review.setId(reviewId);
+        bucket.child(reviewId).setValueAsync(review);
+    }
+
+    /**
+     * One page of a product's reviews, newest first
+     * @param limit Page size, or null for all reviews
+     * @param before Only reviews older than this review ID, or null to start from the newest
+     */
+    public CompletableFuture<ReviewPage> page(String productId, Integer limit, String before) {
+        Query query = buckets().child(productId).orderByKey();
+        if (before != null) {
+            query = query.endAt(before);
+        }
+        if (limit != null) {
+            // One extra to learn whether an older page exists, one more for the cursor row endAt includes
+            query = query.limitToLast(limit + (before != null ? 2 : 1));
+        }
+
+        CompletableFuture<List<Review>> bucketed = read(query, productId);
+        CompletableFuture<List<Review>> legacy = legacyRead
+                ? read(FirebaseDatabase.getInstance(firebaseApp).getReference(LEGACY_NODE)
+                        .orderByChild("productId").equalTo(productId), productId)
+                : CompletableFuture.completedFuture(Collections.emptyList());
+
+        return bucketed.thenCombine(legacy, (fromBuckets, fromLegacy) -> mergePage(fromBuckets, fromLegacy, limit, before));
+    }
+
+    /**
+     * Every stored review, from the buckets and (during the dual-read period) the legacy node
+     */
+    public Collection<Review> loadAll() throws InterruptedException, ExecutionException {
+        Map<String, Review> all = new HashMap<>();
+        if (legacyRead) {
+            for (DataSnapshot child : readOnce(FirebaseDatabase.getInstance(firebaseApp).getReference(LEGACY_NODE)).getChildren()) {
+                addReview(all, child, null);
+            }
+        }
+        for (DataSnapshot bucket : readOnce(buckets()).getChildren()) {
+            for (DataSnapshot child : bucket.getChildren()) {
+                addReview(all, child, bucket.getKey());
+            }
+        }
+        return all.values();
+    }
+
+    /**
+     * Copy every review from the flat legacy node into its product bucket. Idempotent, and leaves
+     * the legacy node in place so reads stay correct until legacy reads are switched off.
+     */
+    public MigrationResult migrateLegacyReviews() throws InterruptedException, ExecutionException {
+        DataSnapshot legacy = readOnce(FirebaseDatabase.getInstance(firebaseApp).getReference(LEGACY_NODE));
+        DatabaseReference root = FirebaseDatabase.getInstance(firebaseApp).getReference();
+
+        Map<String, Review> legacyReviews = new LinkedHashMap<>();
+        for (DataSnapshot child : legacy.getChildren()) {
+            Review review;
+            try {
+                review = FirebaseSnapshotMapper.toReview(child);
+            } catch (DatabaseException e) {
+                review = null;
+            }
+            legacyReviews.put(child.getKey(), review);
+        }
+        Map<String, Review> updates = bucketUpdates(legacyReviews);
+
+        Map<String, Object> batch = new HashMap<>();
+        for (Map.Entry<String, Review> update : updates.entrySet()) {
+            batch.put(update.getKey(), update.getValue());
+            if (batch.size() >= MIGRATION_BATCH_SIZE) {
+                root.updateChildrenAsync(batch).get();
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty()) {
+            root.updateChildrenAsync(batch).get();
+        }
+        MigrationResult result = new MigrationResult(updates.size(), legacyReviews.size() - updates.size());
+        log.info("Review migration copied {} reviews into product buckets ({} skipped)", result.migrated(), result.skipped());
+        return result;
+    }
+
+    /**
+     * Merge one page from a bucket query and the legacy node, newest first
+     * @param fromBuckets The bucket's newest reviews up to and including the cursor, at least limit + 1 older than it
+     * @param fromLegacy Every legacy review of the product
+     */
+    static ReviewPage mergePage(List<Review> fromBuckets, List<Review> fromLegacy, Integer limit, String before) {
+        // Keyed by ID: migrated reviews appear in both, the bucketed copy wins
+        NavigableMap<String, Review> merged = new TreeMap<>(Comparator.reverseOrder());
+        for (Review review : fromLegacy) {
+            merged.put(review.getId(), review);
+        }
+        for (Review review : fromBuckets) {
+            merged.put(review.getId(), review);
+        }
+        Collection<Review> older = before != null ? merged.tailMap(before, false).values() : merged.values();
+
+        List<Review> reviews = new ArrayList<>();
+        String nextBefore = null;
+        for (Review review : older) {
+            if (limit != null && reviews.size() == limit) {
+                nextBefore = reviews.get(reviews.size() - 1).getId();
+                break;
+            }
+            reviews.add(review);
+        }
+        return new ReviewPage(reviews, nextBefore);
+    }
+
+    /**
+     * Bucket writes for legacy reviews, keyed by database path
+     * @param legacy Review ID -> review, null for a review that could not be read
+     */
+    static Map<String, Review> bucketUpdates(Map<String, Review> legacy) {
+        Map<String, Review> updates = new LinkedHashMap<>();
+        legacy.forEach((reviewId, review) -> {
+            if (review == null) {
+                log.warn("Skipping malformed legacy review {}", reviewId);
+                return;
+            }
+            // A product ID is one path segment: "/" would nest the bucket, and . # $ [ ] fail the whole batch
+            if (!FirebaseKeys.isValid(review.getProductId())) {
+                log.warn("Skipping legacy review {}: product ID {} cannot be a bucket key", reviewId, review.getProductId());
+                return;
+            }
+            review.setId(reviewId);
+            updates.put(BUCKETS_NODE + "/" + review.getProductId() + "/" + reviewId, review);
+        });
+        return updates;
+    }
+
+    // --- HELPER METHODS ---
+
+    private DatabaseReference buckets() {
+        return FirebaseDatabase.getInstance(firebaseApp).getReference(BUCKETS_NODE);
+    }
+
+    private CompletableFuture<List<Review>> read(Query query, String productId) {
+        CompletableFuture<List<Review>> future = new CompletableFuture<>();
+        query.addListenerForSingleValueEvent(new ValueEventListener() {
+            @Override
+            public void onDataChange(DataSnapshot snapshot) {
+                List<Review> reviews = new ArrayList<>();
+                for (DataSnapshot child : snapshot.getChildren()) {
+                    try {
+                        Review review = FirebaseSnapshotMapper.toReview(child);
+                        if (review != null) {
+                            review.setId(child.getKey());
+                            reviews.add(review);
+                        }
+                    } catch (DatabaseException e) {
+                        log.warn("Skipping malformed review {} of product {}: {}", child.getKey(), productId, e.getMessage());
+                    }
+                }
+                future.complete(reviews);
+            }
+
+            @Override
+            public void onCancelled(DatabaseError error) {
+                future.completeExceptionally(error.toException());
+            }
+        });
+        return future;
+    }
+
+    private static DataSnapshot readOnce(DatabaseReference ref) throws InterruptedException, ExecutionException {
+        CompletableFuture<DataSnapshot> future = new CompletableFuture<>();
+        ref.addListenerForSingleValueEvent(new ValueEventListener() {
+            @Override
+            public void onDataChange(DataSnapshot snapshot) {
+                future.complete(snapshot);
+            }
+
+            @Override
+            public void onCancelled(DatabaseError error) {
+                future.completeExceptionally(error.toException());
+            }
+        });
+        return future.get();
+    }
+
+    private static void addReview(Map<String, Review> reviews, DataSnapshot child, String productId) {
+        try {
+            Review review = FirebaseSnapshotMapper.toReview(child);
+            if (review != null) {
+                review.setId(child.getKey());
+                if (productId != null) {
+                    review.setProductId(productId);
+                }
+                reviews.put(child.getKey(), review);
+            }
+        } catch (DatabaseException e) {
+            log.warn("Skipping malformed review {}: {}", child.getKey(), e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,136 @@
+package com.ubaid.Auth.service;
+
+import com.ubaid.Auth.model.Product;
+import com.ubaid.Auth.search.TextTokenizer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Bounded LRU cache of encoded search responses.
+ * Keys combine the endpoint, the normalized query, the catalog version and the ratings version,
+ * so a result computed against an older catalog or older ratings can never be served after a write.
+ * The cache is also emptied on every catalog change to release those unreachable entries; entries
+ * outdated by rating changes, which are far more frequent, are left for LRU eviction.
+ */
+@Service
+public class SearchResultCacheService implements CatalogChangeListener {
+
+    public record CacheStats(int size, int maxEntries, long hits, long misses, long evictions, long invalidations) {
+        public double hitRate() {
+            long lookups = hits + misses;
+            return lookups == 0 ? 0 : (double) hits / lookups;
+        }
+    }
+
+    private record CacheKey(String endpoint, String query, long catalogVersion, long ratingsVersion) {
+    }
+
+    private final int maxEntries;
+    private final Map<CacheKey, byte[]> entries;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private final AtomicLong invalidations = new AtomicLong();
+
+    public SearchResultCacheService(@Value("${catalog.search.result-cache.max-entries:1000}") int maxEntries) {
+        this.maxEntries = maxEntries;
+        // Access-ordered, so the eldest entry is the least recently used one
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<CacheKey, byte[]> eldest) {
+                if (size() > SearchResultCacheService.this.maxEntries) {
+                    evictions.incrementAndGet();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    @Override
+    public void onProductUpserted(Product previous, Product current) {
+        invalidateAll();
+    }
+
+    @Override
+    public void onProductRemoved(Product removed) {
+        invalidateAll();
+    }
+
+    /**
+     * Return the cached response for a query, computing and caching it on a miss
+     * @param endpoint Name of the search endpoint, including any mode flags
+     * @param normalizedQuery Query as produced by {@link #normalizeQuery} or {@link #normalizeKeywords}
+     * @param catalogVersion Catalog version the result is computed against
+     * @param ratingsVersion Version of the rating summaries embedded in the response
+     * @param loader Computes the response on a miss
+     */
+    public byte[] get(String endpoint, String normalizedQuery, long catalogVersion, long ratingsVersion,
+                      Supplier<byte[]> loader) {
+        if (maxEntries <= 0) {
+            return loader.get();
+        }
+        CacheKey key = new CacheKey(endpoint, normalizedQuery, catalogVersion, ratingsVersion);
+        byte[] cached;
+        synchronized (entries) {
+            cached = entries.get(key);
+        }
+        if (cached != null) {
+            hits.incrementAndGet();
+            return cached;
+        }
+
+        misses.incrementAndGet();
+        // Computed outside the lock; two concurrent misses for one key just both compute it
+        byte[] computed = loader.get();
+        synchronized (entries) {
+            entries.put(key, computed);
+        }
+        return computed;
+    }
+
+    public void invalidateAll() {
+        synchronized (entries) {
+            if (entries.isEmpty()) {
+                return;
+            }
+            entries.clear();
+        }
+        invalidations.incrementAndGet();
+    }
+
+    public CacheStats stats() {
+        int size;
+        synchronized (entries) {
+            size = entries.size();
+        }
+        return new CacheStats(size, maxEntries, hits.get(), misses.get(), evictions.get(), invalidations.get());
+    }
+
+    /**
+     * Lowercase and trim a query, the same way the indexes normalize it
+     */
+    public static String normalizeQuery(String query) {
+        return TextTokenizer.normalize(query);
+    }
+
+    /**
+     * Normalize each keyword and sort them, so the same set in any order shares an entry
+     */
+    public static String normalizeKeywords(Collection<String> keywords) {
+        List<String> normalized = new ArrayList<>();
+        for (String keyword : keywords) {
+            String value = normalizeQuery(keyword);
+            if (!value.isEmpty()) {
+                normalized.add(value);
+            }
+        }
+        Collections.sort(normalized);
+        return String.join("\u0000", normalized);
+    }
+}
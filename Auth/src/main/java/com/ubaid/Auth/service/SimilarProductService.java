@@ -0,0 +1,163 @@
+package com.ubaid.Auth.service;
+
+import com.ubaid.Auth.model.Product;
+import com.ubaid.Auth.search.MinHasher;
+import com.ubaid.Auth.search.TextTokenizer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * "You may also like" neighbours from MinHash signatures over keyword, category and brand features.
+ * LSH buckets narrow each lookup to products sharing at least one signature band,
+ * so only a handful of candidates are scored instead of the whole catalog.
+ * Products with identical features (e.g. only a shared category) all land in the same buckets,
+ * so each bucket contributes at most maxCandidatesPerBucket candidates to keep lookups bounded.
+ */
+@Service
+public class SimilarProductService implements CatalogChangeListener {
+
+    // 16 bands of 4 rows: pairs with Jaccard ~0.5 collide with probability ~0.65, ~0.3 with ~0.12
+    private static final int BANDS = 16;
+    private static final int ROWS = 4;
+
+    private final MinHasher hasher = new MinHasher(BANDS, ROWS);
+    private final Map<String, int[]> signatures = new HashMap<>();
+    private final List<Map<Long, Set<String>>> buckets = new ArrayList<>(BANDS);
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final int maxCandidatesPerBucket;
+
+    public SimilarProductService(@Value("${catalog.similar.max-candidates-per-bucket:256}") int maxCandidatesPerBucket) {
+        this.maxCandidatesPerBucket = maxCandidatesPerBucket;
+        for (int band = 0; band < BANDS; band++) {
+            buckets.add(new HashMap<>());
+        }
+    }
+
+    @Override
+    public void onProductUpserted(Product previous, Product current) {
+        Set<String> features = features(current);
+        int[] signature = features.isEmpty() ? null : hasher.signature(features);
+
+        lock.writeLock().lock();
+        try {
+            unindex(current.getpId());
+            if (signature != null) {
+                signatures.put(current.getpId(), signature);
+                for (int band = 0; band < BANDS; band++) {
+                    buckets.get(band).computeIfAbsent(hasher.bandKey(signature, band), k -> new HashSet<>()).add(current.getpId());
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void onProductRemoved(Product removed) {
+        lock.writeLock().lock();
+        try {
+            unindex(removed.getpId());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Products most similar to the given one
+     * @param pId Product to find neighbours for
+     * @param limit Maximum number of neighbours
+     * @return Product IDs, most similar first; empty if the product has no features
+     */
+    public List<String> similar(String pId, int limit) {
+        lock.readLock().lock();
+        try {
+            int[] signature = signatures.get(pId);
+            if (signature == null) {
+                return Collections.emptyList();
+            }
+
+            Map<String, Double> scores = new HashMap<>();
+            for (int band = 0; band < BANDS; band++) {
+                Set<String> bucket = buckets.get(band).get(hasher.bandKey(signature, band));
+                if (bucket == null) {
+                    continue;
+                }
+                // Hash order is unrelated to similarity, so the first entries are an arbitrary but stable sample
+                int examined = 0;
+                for (String candidate : bucket) {
+                    if (examined++ == maxCandidatesPerBucket) {
+                        break;
+                    }
+                    if (!candidate.equals(pId) && !scores.containsKey(candidate)) {
+                        scores.put(candidate, MinHasher.estimate(signature, signatures.get(candidate)));
+                    }
+                }
+            }
+
+            // Bounded min-heap keeps the top N without sorting every candidate
+            Comparator<String> byScore = Comparator.comparing((String id) -> scores.get(id))
+                    .thenComparing(Comparator.<String>reverseOrder());
+            PriorityQueue<String> top = new PriorityQueue<>(byScore);
+            for (String candidate : scores.keySet()) {
+                top.offer(candidate);
+                if (top.size() > limit) {
+                    top.poll();
+                }
+            }
+            List<String> result = new ArrayList<>(top);
+            result.sort(byScore.reversed());
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // --- HELPER METHODS ---
+
+    private void unindex(String pId) {
+        int[] signature = signatures.remove(pId);
+        if (signature == null) {
+            return;
+        }
+        for (int band = 0; band < BANDS; band++) {
+            long key = hasher.bandKey(signature, band);
+            Map<Long, Set<String>> bandBuckets = buckets.get(band);
+            Set<String> bucket = bandBuckets.get(key);
+            if (bucket != null) {
+                bucket.remove(pId);
+                if (bucket.isEmpty()) {
+                    bandBuckets.remove(key);
+                }
+            }
+        }
+    }
+
+    // Prefixed so a keyword never collides with a category or brand of the same name
+    private static Set<String> features(Product product) {
+        Set<String> features = new HashSet<>();
+        if (product.getKeywords() != null) {
+            for (String keyword : product.getKeywords()) {
+                for (String token : TextTokenizer.tokenize(keyword)) {
+                    features.add("k:" + token);
+                }
+            }
+        }
+        String category = TextTokenizer.normalize(product.getCategory());
+        if (!category.isEmpty()) {
+            features.add("c:" + category);
+            String subCategory = TextTokenizer.normalize(product.getSubCategory());
+            if (!subCategory.isEmpty()) {
+                features.add("s:" + category + "/" + subCategory);
+            }
+        }
+        String brand = TextTokenizer.normalize(product.getpBrandName());
+        if (!brand.isEmpty()) {
+            features.add("b:" + brand);
+        }
+        return features;
+    }
+}
@@ -0,0 +1,66 @@
+package com.ubaid.Auth.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ubaid.Auth.mapper.ProductDtoMapper;
+import com.ubaid.Auth.model.Product;
+import com.ubaid.Auth.service.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.json.JsonCompareMode;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class PublicProductControllerTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final ProductCatalogService catalog = mock(ProductCatalogService.class);
+    private MockMvc mvc;
+    private Product product;
+
+    @BeforeEach
+    void setUp() {
+        RatingSummaryService ratings = mock(RatingSummaryService.class);
+        PublicProductController controller = new PublicProductController(catalog,
+                mock(DescriptionIndexService.class), mock(KeywordIndexService.class), mock(ProductNameIndexService.class),
+                mock(ProductSortIndexService.class), mock(FacetIndexService.class), mock(FuzzySearchService.class),
+                mock(Bm25SearchService.class), new ProductJsonCacheService(objectMapper, ratings),
+                mock(SearchResultCacheService.class), ratings, mock(SimilarProductService.class),
+                mock(ProductChangeFeedService.class), mock(ProductChangeLogService.class));
+        mvc = MockMvcBuilders.standaloneSetup(controller).build();
+
+        product = new Product();
+        product.setpId("p1");
+        product.setpName("Kettle");
+        product.setpSellingPrice(1499);
+        when(catalog.isReady()).thenReturn(true);
+        when(catalog.getProduct("p1")).thenReturn(product);
+    }
+
+    @Test
+    void unknownFieldIsABadRequest() throws Exception {
+        mvc.perform(get("/api/public/products/p1").param("fields", "pId,secret"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void emptyFieldsReturnTheFullDto() throws Exception {
+        byte[] full = objectMapper.writeValueAsBytes(ProductDtoMapper.toPublicDto(product, null));
+
+        mvc.perform(get("/api/public/products/p1").param("fields", ""))
+                .andExpect(status().isOk())
+                .andExpect(content().bytes(full));
+    }
+
+    @Test
+    void projectionReturnsOnlyTheSelectedFields() throws Exception {
+        mvc.perform(get("/api/public/products/p1").param("fields", "pSellingPrice,pId", "pid"))
+                .andExpect(status().isOk())
+                .andExpect(content().json("{\"pId\":\"p1\",\"pSellingPrice\":1499.0}", JsonCompareMode.STRICT));
+    }
+}
@@ -0,0 +1,26 @@
+package com.ubaid.Auth.mapper;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class FirebaseKeysTest {
+
+    @Test
+    void acceptsPushIdsAndPlainKeys() {
+        assertTrue(FirebaseKeys.isValid("-Nx3kQ_abc123"));
+        assertTrue(FirebaseKeys.isValid("product 42 (blue)"));
+        assertTrue(FirebaseKeys.isValid("é".repeat(384)));
+    }
+
+    @Test
+    void rejectsKeysFirebaseCannotAddress() {
+        assertFalse(FirebaseKeys.isValid(null));
+        assertFalse(FirebaseKeys.isValid(""));
+        for (String key : new String[]{"a.b", "a#b", "a$b", "a[b", "a]b", "a/b", "a\nb", "a\u007Fb"}) {
+            assertFalse(FirebaseKeys.isValid(key), key);
+        }
+        assertFalse(FirebaseKeys.isValid("é".repeat(385)));
+    }
+}
@@ -0,0 +1,110 @@
+package com.ubaid.Auth.mapper;
+
+import com.google.firebase.database.DatabaseException;
+import com.google.firebase.database.utilities.encoding.CustomClassMapper;
+import com.ubaid.Auth.model.Product;
+import com.ubaid.Auth.model.RatingSummary;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FirebaseSnapshotMapperTest {
+
+    private static Map<String, Object> values(Object... keysAndValues) {
+        Map<String, Object> values = new HashMap<>();
+        for (int i = 0; i < keysAndValues.length; i += 2) {
+            values.put((String) keysAndValues[i], keysAndValues[i + 1]);
+        }
+        return values;
+    }
+
+    @Test
+    void numbersNarrowLikeTheFirebaseMapper() {
+        Product product = FirebaseSnapshotMapper.toProduct(values(
+                "pSellingPrice", 1499L,
+                "pMrp", 1999,
+                "pCreditScore", 87.9,
+                "confidence", 1L,
+                "changeSeq", 42.0));
+
+        assertEquals(1499, product.getpSellingPrice());
+        assertEquals(1999, product.getpMrp());
+        assertEquals(87, product.getpCreditScore());
+        assertEquals(1.0, product.getConfidence());
+        assertEquals(42L, product.getChangeSeq());
+    }
+
+    @Test
+    void matchesTheReflectiveMapper() {
+        Map<String, Object> values = values(
+                "pId", "p1", "pName", "Kettle", "pDescription", "Steel", "pBrandName", "Acme",
+                "pSellingPrice", 1499L, "pMrp", 1999L, "pPurchasingPrice", 900L, "pCreditScore", 87L,
+                "pImages", List.of("a.jpg"), "sellerEmail", "s@example.com", "category", "Kitchen",
+                "subCategory", "Kettles", "keywords", List.of("kettle", "steel"), "confidence", 0.5,
+                "mode", "auto", "changeSeq", 7L);
+
+        assertEquals(CustomClassMapper.convertToCustomClass(values, Product.class), FirebaseSnapshotMapper.toProduct(values));
+    }
+
+    @Test
+    void missingValuesDefault() {
+        Product product = FirebaseSnapshotMapper.toProduct(values("pId", "p1"));
+
+        assertEquals("p1", product.getpId());
+        assertNull(product.getpName());
+        assertEquals(0, product.getpSellingPrice());
+        assertEquals(0.0, product.getConfidence());
+        assertEquals(new Product().getpImages(), product.getpImages());
+    }
+
+    @Test
+    void outOfRangeAndMismatchedTypesFail() {
+        assertThrows(DatabaseException.class, () -> FirebaseSnapshotMapper.toProduct(values("pMrp", 3_000_000_000L)));
+        assertThrows(DatabaseException.class, () -> FirebaseSnapshotMapper.toProduct(values("pMrp", "1999")));
+        assertThrows(DatabaseException.class, () -> FirebaseSnapshotMapper.toProduct(values("pName", 5L)));
+        assertThrows(DatabaseException.class, () -> FirebaseSnapshotMapper.toProduct(values("confidence", true)));
+        assertThrows(DatabaseException.class, () -> FirebaseSnapshotMapper.toProduct(values("changeSeq", 1e30)));
+    }
+
+    @Test
+    void listsAcceptArraysAndSparseIndexMaps() {
+        Map<String, Object> sparse = new HashMap<>();
+        sparse.put("10", "c");
+        sparse.put("2", "b");
+        sparse.put("0", "a");
+
+        Product product = FirebaseSnapshotMapper.toProduct(values(
+                "pImages", List.of("x.jpg", "y.jpg"),
+                "keywords", sparse));
+
+        assertEquals(List.of("x.jpg", "y.jpg"), product.getpImages());
+        // Ordered by index, not by string key
+        assertEquals(List.of("a", "b", "c"), product.getKeywords());
+    }
+
+    @Test
+    void malformedListsFail() {
+        assertThrows(DatabaseException.class, () -> FirebaseSnapshotMapper.toProduct(values("keywords", "a,b")));
+        assertThrows(DatabaseException.class, () -> FirebaseSnapshotMapper.toProduct(values("keywords", Map.of("x", "a"))));
+        assertThrows(DatabaseException.class, () -> FirebaseSnapshotMapper.toProduct(values("keywords", List.of("a", 1L))));
+    }
+
+    @Test
+    void ratingHistogramFromListOrSparseMap() {
+        RatingSummary fromList = FirebaseSnapshotMapper.toRatingSummary(values(
+                "count", 3L, "sum", 12L, "histogram", Arrays.asList(0L, null, 0L, 0L, 3L, 0L, 9L)));
+        assertEquals(3L, fromList.getCount());
+        assertEquals(12L, fromList.getSum());
+        // Extra entries past five stars are ignored, non-numbers count as zero
+        assertEquals(List.of(0L, 0L, 0L, 0L, 3L, 0L), fromList.getHistogram());
+
+        RatingSummary fromMap = FirebaseSnapshotMapper.toRatingSummary(values(
+                "histogram", Map.of("5", 2L, "1", 1L)));
+        assertEquals(List.of(0L, 1L, 0L, 0L, 0L, 2L), fromMap.getHistogram());
+
+        assertThrows(DatabaseException.class, () -> FirebaseSnapshotMapper.toRatingSummary(values(
+                "histogram", Map.of("five", 2L))));
+    }
+}
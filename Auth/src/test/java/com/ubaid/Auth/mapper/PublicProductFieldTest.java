@@ -0,0 +1,112 @@
+package com.ubaid.Auth.mapper;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ubaid.Auth.model.Product;
+import com.ubaid.Auth.model.RatingSummary;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PublicProductFieldTest {
+
+    private static final TypeReference<Map<String, Object>> JSON_OBJECT = new TypeReference<>() {
+    };
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private static Product product() {
+        Product product = new Product();
+        product.setpId("-Nx1");
+        product.setpName("Kettle \"Pro\"");
+        product.setpDescription("Steel");
+        product.setpBrandName("Acme");
+        product.setpImages(List.of("https://res.cloudinary.com/demo/a.jpg", "https://res.cloudinary.com/demo/b.jpg"));
+        product.setpSellingPrice(1499);
+        product.setpMrp(1999);
+        product.setCategory("Kitchen");
+        product.setSubCategory("Kettles");
+        product.setKeywords(Arrays.asList("kettle", null));
+        product.setpCreditScore(87);
+        return product;
+    }
+
+    private static RatingSummary rating() {
+        RatingSummary rating = new RatingSummary();
+        rating.setCount(4);
+        rating.setSum(17);
+        return rating;
+    }
+
+    private String project(Product product, RatingSummary rating, Set<PublicProductField> fields) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (JsonGenerator gen = objectMapper.getFactory().createGenerator(out)) {
+            PublicProductField.writeProjection(gen, product, rating, fields);
+        }
+        return out.toString();
+    }
+
+    @Test
+    void parseIsCaseInsensitiveAndAcceptsCommaSeparatedNames() {
+        assertEquals(EnumSet.of(PublicProductField.P_ID, PublicProductField.P_SELLING_PRICE, PublicProductField.AVERAGE_RATING),
+                PublicProductField.parse(List.of("PSELLINGPRICE, pid", "averageRating")));
+    }
+
+    @Test
+    void duplicateNamesSelectAFieldOnceInDeclarationOrder() throws Exception {
+        Set<PublicProductField> fields = PublicProductField.parse(List.of("pName,pId", "pname", "PID"));
+
+        assertEquals(EnumSet.of(PublicProductField.P_ID, PublicProductField.P_NAME), fields);
+        assertEquals("{\"pId\":\"-Nx1\",\"pName\":\"Kettle \\\"Pro\\\"\"}", project(product(), null, fields));
+    }
+
+    @Test
+    void emptyOrAbsentFieldsMeanTheFullDto() {
+        assertNull(PublicProductField.parse(null));
+        assertNull(PublicProductField.parse(List.of()));
+        assertNull(PublicProductField.parse(List.of("")));
+        assertNull(PublicProductField.parse(List.of(" , ,")));
+    }
+
+    @Test
+    void unknownNamesAreRejected() {
+        IllegalArgumentException error = assertThrows(IllegalArgumentException.class,
+                () -> PublicProductField.parse(List.of("pId,password")));
+
+        assertTrue(error.getMessage().startsWith("Unknown field: password"));
+        assertTrue(error.getMessage().contains("pSellingPrice"));
+    }
+
+    @Test
+    void everyProjectedFieldMatchesTheFullDto() throws Exception {
+        for (RatingSummary rating : Arrays.asList(rating(), null)) {
+            Map<String, Object> full = objectMapper.readValue(
+                    objectMapper.writeValueAsBytes(ProductDtoMapper.toPublicDto(product(), rating)), JSON_OBJECT);
+            for (PublicProductField field : PublicProductField.values()) {
+                if (field == PublicProductField.P_IMAGE) {
+                    continue;
+                }
+                Map<String, Object> projected = objectMapper.readValue(project(product(), rating, EnumSet.of(field)), JSON_OBJECT);
+                assertEquals(Map.of(field.getName(), full.get(field.getName())), projected, field.getName());
+            }
+
+            EnumSet<PublicProductField> all = EnumSet.allOf(PublicProductField.class);
+            all.remove(PublicProductField.P_IMAGE);
+            assertEquals(full, objectMapper.readValue(project(product(), rating, all), JSON_OBJECT));
+        }
+    }
+
+    @Test
+    void imageIsTheFirstImageOrNull() throws Exception {
+        Set<PublicProductField> image = EnumSet.of(PublicProductField.P_IMAGE);
+        assertEquals("{\"pImage\":\"https://res.cloudinary.com/demo/a.jpg\"}", project(product(), null, image));
+
+        Product noImages = product();
+        noImages.setpImages(List.of());
+        assertEquals("{\"pImage\":null}", project(noImages, null, image));
+    }
+}
@@ -0,0 +1,82 @@
+package com.ubaid.Auth.mapper;
+
+import com.google.firebase.database.utilities.encoding.CustomClassMapper;
+import com.ubaid.Auth.model.Product;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Full-catalog mapping: {@link FirebaseSnapshotMapper#toProduct(Map)} against the reflective mapper
+ * behind {@code DataSnapshot.getValue(Product.class)}, over values shaped like Firebase returns them.
+ * Run with:
+ * mvn test-compile exec:exec -Dexec.executable=java -Dexec.classpathScope=test
+ *     -Dexec.args="-cp %classpath com.ubaid.Auth.mapper.SnapshotMapperBenchmark"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class SnapshotMapperBenchmark {
+
+    @Param({"1000"})
+    private int products;
+
+    private List<Map<String, Object>> catalog;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        catalog = new ArrayList<>(products);
+        for (int i = 0; i < products; i++) {
+            Map<String, Object> values = new HashMap<>();
+            values.put("pId", "-Nx" + i);
+            values.put("pName", "Product " + i);
+            values.put("pDescription", "Description of product " + i + " with a few more words in it");
+            values.put("pBrandName", "Brand " + random.nextInt(50));
+            // Firebase decodes every whole number as Long
+            values.put("pSellingPrice", (long) random.nextInt(10_000));
+            values.put("pMrp", (long) random.nextInt(20_000));
+            values.put("pPurchasingPrice", (long) random.nextInt(5_000));
+            values.put("pCreditScore", (long) random.nextInt(100));
+            values.put("pImages", new ArrayList<>(List.of("https://res.cloudinary.com/demo/image/upload/" + i + ".jpg")));
+            values.put("sellerEmail", "seller" + random.nextInt(20) + "@example.com");
+            values.put("category", "Category " + random.nextInt(10));
+            values.put("subCategory", "Sub " + random.nextInt(30));
+            values.put("keywords", new ArrayList<>(List.of("alpha", "beta", "gamma", "delta")));
+            values.put("confidence", random.nextDouble());
+            values.put("mode", "auto");
+            values.put("changeSeq", (long) i);
+            catalog.add(values);
+        }
+    }
+
+    @Benchmark
+    public void handWritten(Blackhole blackhole) {
+        for (Map<String, Object> values : catalog) {
+            blackhole.consume(FirebaseSnapshotMapper.toProduct(values));
+        }
+    }
+
+    @Benchmark
+    public void reflective(Blackhole blackhole) {
+        for (Map<String, Object> values : catalog) {
+            blackhole.consume(CustomClassMapper.convertToCustomClass(values, Product.class));
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(SnapshotMapperBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build()).run();
+    }
+}
@@ -0,0 +1,33 @@
+package com.ubaid.Auth.search;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class EditDistanceTest {
+
+    @Test
+    void countsInsertionsDeletionsAndSubstitutions() {
+        assertEquals(0, EditDistance.bounded("shoe", "shoe", 2));
+        assertEquals(1, EditDistance.bounded("shoe", "shoes", 2));
+        assertEquals(1, EditDistance.bounded("shoes", "shoe", 2));
+        assertEquals(1, EditDistance.bounded("shoe", "shoo", 2));
+        assertEquals(3, EditDistance.bounded("kitten", "sitting", 3));
+    }
+
+    @Test
+    void adjacentTranspositionIsOneEdit() {
+        assertEquals(1, EditDistance.bounded("teh", "the", 2));
+        assertEquals(1, EditDistance.bounded("headphnoes", "headphones", 2));
+    }
+
+    @Test
+    void stopsAtMaxPlusOne() {
+        assertEquals(3, EditDistance.bounded("abc", "xyz", 2));
+        assertEquals(3, EditDistance.bounded("kitten", "sitting", 2));
+        // Length difference alone exceeds the bound
+        assertEquals(2, EditDistance.bounded("a", "abcdef", 1));
+        assertEquals(0, EditDistance.bounded("", "", 0));
+        assertEquals(1, EditDistance.bounded("", "a", 0));
+    }
+}
@@ -0,0 +1,55 @@
+package com.ubaid.Auth.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MinHasherTest {
+
+    private final MinHasher hasher = new MinHasher(32, 4);
+
+    private static Set<String> range(int from, int to) {
+        Set<String> features = new HashSet<>();
+        for (int i = from; i < to; i++) {
+            features.add("f" + i);
+        }
+        return features;
+    }
+
+    @Test
+    void signaturesAreStableAcrossInstancesAndOrder() {
+        int[] first = hasher.signature(List.of("a", "b", "c"));
+
+        assertArrayEquals(first, new MinHasher(32, 4).signature(List.of("c", "a", "b")));
+        assertEquals(128, first.length);
+    }
+
+    @Test
+    void estimateApproximatesJaccard() {
+        // |A ∩ B| = 50, |A ∪ B| = 150: Jaccard 1/3
+        double estimate = MinHasher.estimate(hasher.signature(range(0, 100)), hasher.signature(range(50, 150)));
+
+        assertEquals(1.0 / 3, estimate, 0.15);
+        assertEquals(1.0, MinHasher.estimate(hasher.signature(range(0, 10)), hasher.signature(range(0, 10))));
+        assertTrue(MinHasher.estimate(hasher.signature(range(0, 50)), hasher.signature(range(50, 100))) < 0.1);
+    }
+
+    @Test
+    void equalBandsShareKeysAndBandsAreDistinct() {
+        int[] signature = hasher.signature(range(0, 20));
+        int[] copy = signature.clone();
+
+        assertEquals(hasher.bandKey(signature, 3), hasher.bandKey(copy, 3));
+        // Same values in a different band must not collide
+        int[] uniform = new int[128];
+        assertNotEquals(hasher.bandKey(uniform, 0), hasher.bandKey(uniform, 1));
+
+        copy[3 * 4] ^= 1;
+        assertNotEquals(hasher.bandKey(signature, 3), hasher.bandKey(copy, 3));
+        assertEquals(hasher.bandKey(signature, 4), hasher.bandKey(copy, 4));
+    }
+}
@@ -0,0 +1,94 @@
+package com.ubaid.Auth.search;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PrefixTrieTest {
+
+    private final Map<String, Integer> scores = new HashMap<>();
+    private PrefixTrie trie;
+
+    @BeforeEach
+    void setUp() {
+        Comparator<String> byScore = Comparator.comparing((String id) -> scores.getOrDefault(id, 0)).reversed()
+                .thenComparing(Comparator.naturalOrder());
+        trie = new PrefixTrie(byScore, 3);
+    }
+
+    private void insert(String key, String id, int score) {
+        scores.put(id, score);
+        trie.insert(key, id);
+    }
+
+    @Test
+    void topReturnsBestRankedIdsUnderPrefix() {
+        insert("apple", "a1", 10);
+        insert("apricot", "a2", 50);
+        insert("application", "a3", 30);
+        insert("banana", "b1", 100);
+
+        assertEquals(List.of("a2", "a3", "a1"), trie.top("ap", 10));
+        assertEquals(List.of("a3", "a1"), trie.top("app", 10));
+        assertEquals(List.of("b1"), trie.top("b", 10));
+        assertTrue(trie.top("c", 10).isEmpty());
+    }
+
+    @Test
+    void topRespectsLimitBelowAndAboveCacheSize() {
+        for (int i = 0; i < 6; i++) {
+            insert("item" + i, "id" + i, i);
+        }
+
+        assertEquals(List.of("id5", "id4"), trie.top("item", 2));
+        // Above the per-node cache size the subtree is collected in full
+        assertEquals(List.of("id5", "id4", "id3", "id2", "id1"), trie.top("item", 5));
+    }
+
+    @Test
+    void removeInvalidatesCachedTopAndPrunes() {
+        insert("cat", "c1", 5);
+        insert("car", "c2", 9);
+        assertEquals(List.of("c2", "c1"), trie.top("ca", 10));
+
+        trie.remove("car", "c2");
+
+        assertEquals(List.of("c1"), trie.top("ca", 10));
+        assertTrue(trie.all("car").isEmpty());
+    }
+
+    @Test
+    void insertInvalidatesCachedTop() {
+        insert("dog", "d1", 1);
+        assertEquals(List.of("d1"), trie.top("d", 10));
+
+        insert("dove", "d2", 7);
+
+        assertEquals(List.of("d2", "d1"), trie.top("d", 10));
+    }
+
+    @Test
+    void sameIdUnderSeveralKeysIsReturnedOnce() {
+        insert("red shoe", "s1", 3);
+        insert("red sock", "s1", 3);
+        insert("red hat", "h1", 1);
+
+        assertEquals(List.of("s1", "h1"), trie.top("red", 10));
+        assertEquals(List.of("s1", "h1"), trie.all("red"));
+    }
+
+    @Test
+    void emptyPrefixMatchesEverything() {
+        insert("x", "x1", 1);
+        insert("", "blank", 2);
+
+        assertEquals(List.of("blank", "x1"), trie.all(""));
+    }
+}
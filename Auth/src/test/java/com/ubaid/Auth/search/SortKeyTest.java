@@ -0,0 +1,48 @@
+package com.ubaid.Auth.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SortKeyTest {
+
+    @Test
+    void cursorRoundTrips() {
+        SortKey key = new SortKey(-1250L, "-Nx_a|b");
+
+        String cursor = key.toCursor(ProductSortField.PRICE, true);
+
+        assertFalse(cursor.contains("=") || cursor.contains("+") || cursor.contains("/"));
+        assertEquals(key, SortKey.fromCursor(cursor, ProductSortField.PRICE, true));
+    }
+
+    @Test
+    void cursorIsBoundToFieldAndDirection() {
+        String cursor = new SortKey(7L, "p1").toCursor(ProductSortField.CREDIT_SCORE, false);
+
+        assertThrows(IllegalArgumentException.class, () -> SortKey.fromCursor(cursor, ProductSortField.PRICE, false));
+        assertThrows(IllegalArgumentException.class, () -> SortKey.fromCursor(cursor, ProductSortField.CREDIT_SCORE, true));
+    }
+
+    @Test
+    void malformedCursorsAreRejected() {
+        String notNumeric = Base64.getUrlEncoder().withoutPadding()
+                .encodeToString("price|asc|abc|p1".getBytes(StandardCharsets.UTF_8));
+        String tooShort = Base64.getUrlEncoder().withoutPadding()
+                .encodeToString("price|asc".getBytes(StandardCharsets.UTF_8));
+
+        assertThrows(IllegalArgumentException.class, () -> SortKey.fromCursor("not base64!", ProductSortField.PRICE, false));
+        assertThrows(IllegalArgumentException.class, () -> SortKey.fromCursor(notNumeric, ProductSortField.PRICE, false));
+        assertThrows(IllegalArgumentException.class, () -> SortKey.fromCursor(tooShort, ProductSortField.PRICE, false));
+    }
+
+    @Test
+    void ordersByValueThenPId() {
+        assertTrue(new SortKey(1L, "z").compareTo(new SortKey(2L, "a")) < 0);
+        assertTrue(new SortKey(2L, "a").compareTo(new SortKey(2L, "b")) < 0);
+        assertEquals(0, new SortKey(2L, "a").compareTo(new SortKey(2L, "a")));
+    }
+}
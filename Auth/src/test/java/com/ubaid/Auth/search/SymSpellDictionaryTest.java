@@ -0,0 +1,56 @@
+package com.ubaid.Auth.search;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SymSpellDictionaryTest {
+
+    private SymSpellDictionary dictionary;
+
+    @BeforeEach
+    void setUp() {
+        dictionary = new SymSpellDictionary(2, 7);
+        dictionary.add("shoe");
+        dictionary.add("shoes");
+        dictionary.add("show");
+        dictionary.add("headphones");
+    }
+
+    @Test
+    void exactTermHasDistanceZero() {
+        assertEquals(0, dictionary.lookup("shoe", 2).get("shoe"));
+        assertEquals(Map.of("shoe", 0), dictionary.lookup("shoe", 0));
+    }
+
+    @Test
+    void findsEveryTermWithinDistance() {
+        assertEquals(Map.of("shoe", 0, "shoes", 1, "show", 1), dictionary.lookup("shoe", 1));
+        assertEquals(Map.of("shoe", 1, "shoes", 2, "show", 1), dictionary.lookup("sho", 2));
+    }
+
+    @Test
+    void typosBeyondThePrefixAreStillScoredOnTheWholeTerm() {
+        assertEquals(Map.of("headphones", 1), dictionary.lookup("headphnoes", 2));
+        assertEquals(Map.of("headphones", 2), dictionary.lookup("headphonez!", 2));
+    }
+
+    @Test
+    void lookupDistanceIsCappedByDictionaryMax() {
+        assertTrue(dictionary.lookup("shxyz", 5).isEmpty());
+    }
+
+    @Test
+    void removedTermsAreNoLongerFound() {
+        dictionary.remove("shoe");
+
+        assertEquals(Map.of("shoes", 1, "show", 1), dictionary.lookup("shoe", 1));
+        // Removing an unknown term is a no-op
+        dictionary.remove("boot");
+        assertEquals(Map.of("show", 0), dictionary.lookup("show", 0));
+    }
+}
@@ -0,0 +1,101 @@
+package com.ubaid.Auth.service;
+
+import com.ubaid.Auth.model.Product;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class Bm25SearchServiceTest {
+
+    private final Bm25SearchService search = new Bm25SearchService(1.2, 0.75, 3.0, 2.0, 1.0, 1.5, 2.0);
+
+    private static Product product(String pId, String name, String description) {
+        Product product = new Product();
+        product.setpId(pId);
+        product.setpName(name);
+        product.setpDescription(description);
+        return product;
+    }
+
+    private List<String> ids(String query, int limit) {
+        return search.search(query, limit).stream().map(Bm25SearchService.ScoredProduct::pId).toList();
+    }
+
+    @Test
+    void scoreMatchesBm25Formula() {
+        search.onProductUpserted(null, product("p1", "Lamp", null));
+
+        // One document of length 1 at average length: tf part = boost * (k1 + 1) / (1 + k1) = 3
+        double expected = Math.log(1 + 0.5 / 1.5) * 3.0;
+        assertEquals(expected, search.search("lamp", 10).get(0).score(), 1e-9);
+    }
+
+    @Test
+    void boostedFieldOutranksDescription() {
+        search.onProductUpserted(null, product("p1", "Desk", "A lamp for reading"));
+        search.onProductUpserted(null, product("p2", "Lamp", "For a desk"));
+
+        assertEquals(List.of("p2", "p1"), ids("lamp", 10));
+    }
+
+    @Test
+    void shorterFieldRanksHigherForSameTerm() {
+        search.onProductUpserted(null, product("p1", "Lamp with very long extra name words", null));
+        search.onProductUpserted(null, product("p2", "Lamp", null));
+
+        assertEquals(List.of("p2", "p1"), ids("lamp", 10));
+    }
+
+    @Test
+    void rarerTermWeighsMore() {
+        search.onProductUpserted(null, product("p1", "Red chair", null));
+        search.onProductUpserted(null, product("p2", "Red table", null));
+        search.onProductUpserted(null, product("p3", "Red stool", null));
+
+        // "chair" only occurs once, so it decides the ranking over the common "red"
+        assertEquals("p1", ids("red chair", 10).get(0));
+        assertTrue(search.search("chair", 1).get(0).score() > search.search("red", 1).get(0).score());
+    }
+
+    @Test
+    void nullAndBlankKeywordsAreNotIndexed() {
+        Product withGaps = product("p1", "Lamp", null);
+        withGaps.setKeywords(Arrays.asList("desk", null, " ", ""));
+        Product clean = product("p2", "Lamp", null);
+        clean.setKeywords(List.of("desk"));
+        search.onProductUpserted(null, withGaps);
+        search.onProductUpserted(null, clean);
+
+        assertEquals(List.of(), ids("null", 10));
+        // Same field length, so both score the same and tie-break by pId
+        List<Bm25SearchService.ScoredProduct> results = search.search("desk", 10);
+        assertEquals(List.of("p1", "p2"), results.stream().map(Bm25SearchService.ScoredProduct::pId).toList());
+        assertEquals(results.get(1).score(), results.get(0).score(), 1e-9);
+    }
+
+    @Test
+    void limitKeepsBestAndTiesBreakByPId() {
+        search.onProductUpserted(null, product("p3", "Mug", null));
+        search.onProductUpserted(null, product("p1", "Mug", null));
+        search.onProductUpserted(null, product("p2", "Mug", null));
+
+        assertEquals(List.of("p1", "p2"), ids("mug", 2));
+    }
+
+    @Test
+    void updateAndRemoveReplacePostings() {
+        search.onProductUpserted(null, product("p1", "Blue mug", null));
+        search.onProductUpserted(null, product("p1", "Green mug", null));
+
+        assertEquals(List.of(), ids("blue", 10));
+        assertEquals(List.of("p1"), ids("green", 10));
+
+        search.onProductRemoved(product("p1", null, null));
+        assertEquals(List.of(), ids("mug", 10));
+        assertEquals(List.of(), ids("", 10));
+    }
+}
@@ -0,0 +1,123 @@
+package com.ubaid.Auth.service;
+
+import com.ubaid.Auth.model.Product;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CatalogSnapshotStoreTest {
+
+    @TempDir
+    Path dir;
+
+    private Path path;
+    private final CatalogSnapshotStore store = new CatalogSnapshotStore();
+
+    @BeforeEach
+    void setUp() {
+        path = dir.resolve("nested/catalog-snapshot.bin");
+        ReflectionTestUtils.setField(store, "enabled", true);
+        ReflectionTestUtils.setField(store, "path", path);
+    }
+
+    private static Product fullProduct() {
+        Product p = new Product();
+        p.setpId("-Nx1");
+        p.setpName("Chaï kettle ☕");
+        p.setpDescription("Steel, 1.5 l");
+        p.setpBrandName("Acme");
+        p.setSellerEmail("seller@example.com");
+        p.setCategory("Kitchen");
+        p.setSubCategory("Kettles");
+        p.setMode("manual");
+        p.setpSellingPrice(1499);
+        p.setpMrp(1999);
+        p.setpPurchasingPrice(900);
+        p.setpCreditScore(87);
+        p.setConfidence(0.93);
+        p.setpImages(List.of("https://res.cloudinary.com/demo/a.jpg", "https://res.cloudinary.com/demo/b.jpg"));
+        p.setKeywords(Arrays.asList("kettle", null, ""));
+        p.setChangeSeq(42L);
+        return p;
+    }
+
+    @Test
+    void roundTripsEveryField() throws Exception {
+        Product sparse = new Product();
+        sparse.setpId("-Nx2");
+
+        store.save(7L, List.of(fullProduct(), sparse));
+        CatalogSnapshotStore.Snapshot snapshot = store.load();
+
+        assertNotNull(snapshot);
+        assertEquals(7L, snapshot.version());
+        assertEquals(List.of(fullProduct(), sparse), snapshot.products());
+        assertFalse(Files.exists(path.resolveSibling(path.getFileName() + ".tmp")));
+    }
+
+    @Test
+    void emptyCatalogRoundTrips() throws Exception {
+        store.save(0L, List.of());
+
+        assertEquals(List.of(), store.load().products());
+    }
+
+    @Test
+    void missingFileLoadsAsNoSnapshot() {
+        assertNull(store.load());
+    }
+
+    @Test
+    void unreadableFilesAreIgnored() throws Exception {
+        store.save(3L, List.of(fullProduct()));
+        byte[] bytes = Files.readAllBytes(path);
+
+        Files.write(path, Arrays.copyOf(bytes, bytes.length - 10));
+        assertNull(store.load());
+
+        bytes[0] ^= 0x7F;
+        Files.write(path, bytes);
+        assertNull(store.load());
+    }
+
+    @Test
+    void corruptLengthPrefixesAreIgnored() throws Exception {
+        store.save(3L, List.of(fullProduct()));
+        byte[] bytes = Files.readAllBytes(path);
+        // Header (magic, format, version) and the first record marker, then the pId length prefix
+        int pIdLength = 4 + 4 + 8 + 1;
+
+        ByteBuffer.wrap(bytes).putInt(pIdLength, Integer.MAX_VALUE - 8);
+        Files.write(path, bytes);
+        assertNull(store.load());
+
+        // Cut inside the pId itself, so its length points past the end of the file
+        store.save(3L, List.of(fullProduct()));
+        Files.write(path, Arrays.copyOf(Files.readAllBytes(path), pIdLength + 4 + 2));
+        assertNull(store.load());
+    }
+
+    @Test
+    void corruptListSizeIsIgnored() throws Exception {
+        Product product = new Product();
+        product.setpId("p");
+        store.save(3L, List.of(product));
+        byte[] bytes = Files.readAllBytes(path);
+        // Trailer: changeSeq, end marker and count follow the keywords list; the image list size precedes it
+        int keywordsSize = bytes.length - 4 - 1 - 8 - 4;
+
+        ByteBuffer.wrap(bytes).putInt(keywordsSize - 4, Integer.MAX_VALUE);
+        Files.write(path, bytes);
+
+        assertNull(store.load());
+    }
+}
@@ -0,0 +1,175 @@
+package com.ubaid.Auth.service;
+
+import com.cloudinary.Cloudinary;
+import com.cloudinary.utils.ObjectUtils;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * deleteImages against an embedded stub of the Cloudinary Admin and Upload APIs.
+ * Public IDs starting with "gone" are reported not_found, "locked" get an error status,
+ * and a chunk containing a "broken" ID fails outright with a 500. Single destroy calls
+ * succeed unless the ID starts with "stuck".
+ */
+class CloudinaryServiceTest {
+
+    private static final Pattern MULTIPART_FIELD = Pattern.compile("name=\"([^\"]+)\"\r\n(?:[^\r\n]+\r\n)*\r\n([^\r\n]*)\r\n");
+
+    private HttpServer server;
+    private CloudinaryService cloudinaryService;
+    // Public IDs of each bulk delete call and of each single destroy, in arrival order
+    private final List<List<String>> bulkCalls = Collections.synchronizedList(new ArrayList<>());
+    private final List<String> destroyCalls = Collections.synchronizedList(new ArrayList<>());
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/v1_1/demo/resources/image/upload", this::bulkDelete);
+        server.createContext("/v1_1/demo/image/destroy", this::destroy);
+        server.start();
+
+        Cloudinary cloudinary = new Cloudinary(ObjectUtils.asMap(
+                "cloud_name", "demo",
+                "api_key", "key",
+                "api_secret", "secret",
+                "upload_prefix", "http://127.0.0.1:" + server.getAddress().getPort()));
+        cloudinaryService = new CloudinaryService(cloudinary);
+    }
+
+    @AfterEach
+    void tearDown() {
+        cloudinaryService.shutdown();
+        server.stop(0);
+    }
+
+    private static String url(String publicId) {
+        return "https://res.cloudinary.com/demo/image/upload/v1700000000/" + publicId + ".jpg";
+    }
+
+    @Test
+    void deletesInChunksOfAHundred() {
+        String[] urls = new String[250];
+        for (int i = 0; i < urls.length; i++) {
+            urls[i] = url("products/p" + i);
+        }
+
+        Map<String, Boolean> results = cloudinaryService.deleteImages(urls);
+
+        assertEquals(List.of(urls), new ArrayList<>(results.keySet()));
+        assertTrue(results.values().stream().allMatch(Boolean::booleanValue));
+        List<Integer> sizes = bulkCalls.stream().map(List::size).sorted(Comparator.reverseOrder()).toList();
+        assertEquals(List.of(100, 100, 50), sizes);
+        assertEquals(250, bulkCalls.stream().flatMap(List::stream).distinct().count());
+        assertTrue(destroyCalls.isEmpty());
+    }
+
+    @Test
+    void unconfirmedStatusesFallBackToDestroy() {
+        Map<String, Boolean> results = cloudinaryService.deleteImages(
+                url("products/a"), url("products/gone-b"), url("products/locked-c"), url("products/stuck-locked-d"));
+
+        assertEquals(true, results.get(url("products/a")));
+        assertEquals(true, results.get(url("products/gone-b")));
+        assertEquals(true, results.get(url("products/locked-c")));
+        assertEquals(false, results.get(url("products/stuck-locked-d")));
+        assertEquals(1, bulkCalls.size());
+        assertEquals(List.of("products/locked-c", "products/stuck-locked-d"), sorted(destroyCalls));
+    }
+
+    @Test
+    void failedChunkFallsBackToDestroyForEachImage() {
+        Map<String, Boolean> results = cloudinaryService.deleteImages(
+                url("products/broken-a"), url("products/b"), url("products/stuck-c"));
+
+        assertEquals(List.of(true, true, false), new ArrayList<>(results.values()));
+        assertEquals(List.of("products/b", "products/broken-a", "products/stuck-c"), sorted(destroyCalls));
+    }
+
+    @Test
+    void urlsOfTheSameImageShareOneResult() {
+        String plain = url("products/shared");
+        String other = "https://res.cloudinary.com/demo/image/upload/v1700000001/products/shared.png";
+        String external = "https://lh3.googleusercontent.com/photo.jpg";
+
+        Map<String, Boolean> results = cloudinaryService.deleteImages(plain, other, external, "");
+
+        assertEquals(List.of(plain, other, external, ""), new ArrayList<>(results.keySet()));
+        assertEquals(List.of(true, true, true, false), new ArrayList<>(results.values()));
+        assertEquals(List.of(List.of("products/shared")), bulkCalls);
+        assertTrue(destroyCalls.isEmpty());
+    }
+
+    // --- HELPER METHODS ---
+
+    private static List<String> sorted(List<String> values) {
+        return values.stream().sorted().toList();
+    }
+
+    private void bulkDelete(HttpExchange exchange) throws IOException {
+        List<String> publicIds = params(exchange).getOrDefault("public_ids[]", List.of());
+        bulkCalls.add(publicIds);
+        if (publicIds.stream().anyMatch(id -> id.contains("broken"))) {
+            respond(exchange, 500, "{\"error\":{\"message\":\"Internal error\"}}");
+            return;
+        }
+        String deleted = publicIds.stream()
+                .map(id -> "\"" + id + "\":\"" + (id.contains("gone") ? "not_found"
+                        : id.contains("locked") ? "error" : "deleted") + "\"")
+                .collect(Collectors.joining(","));
+        respond(exchange, 200, "{\"deleted\":{" + deleted + "},\"partial\":false}");
+    }
+
+    private void destroy(HttpExchange exchange) throws IOException {
+        String publicId = params(exchange).get("public_id").get(0);
+        destroyCalls.add(publicId);
+        respond(exchange, 200, "{\"result\":\"" + (publicId.contains("stuck") ? "error" : "ok") + "\"}");
+    }
+
+    /**
+     * Form parameters from the query string and a url-encoded or multipart body
+     */
+    private static Map<String, List<String>> params(HttpExchange exchange) throws IOException {
+        String query = exchange.getRequestURI().getRawQuery();
+        String body = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+        Map<String, List<String>> params = new HashMap<>();
+        String contentType = Objects.toString(exchange.getRequestHeaders().getFirst("Content-Type"), "");
+        if (contentType.startsWith("multipart/")) {
+            Matcher field = MULTIPART_FIELD.matcher(body);
+            while (field.find()) {
+                params.computeIfAbsent(field.group(1), k -> new ArrayList<>()).add(field.group(2));
+            }
+            body = "";
+        }
+        for (String part : (Objects.toString(query, "") + "&" + body).split("&")) {
+            int eq = part.indexOf('=');
+            if (eq > 0) {
+                params.computeIfAbsent(URLDecoder.decode(part.substring(0, eq), StandardCharsets.UTF_8), k -> new ArrayList<>())
+                        .add(URLDecoder.decode(part.substring(eq + 1), StandardCharsets.UTF_8));
+            }
+        }
+        return params;
+    }
+
+    private static void respond(HttpExchange exchange, int status, String json) throws IOException {
+        byte[] bytes = json.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length);
+        exchange.getResponseBody().write(bytes);
+        exchange.close();
+    }
+}
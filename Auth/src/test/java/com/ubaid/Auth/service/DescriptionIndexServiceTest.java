@@ -0,0 +1,92 @@
+package com.ubaid.Auth.service;
+
+import com.ubaid.Auth.model.Product;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DescriptionIndexServiceTest {
+
+    private final DescriptionIndexService index = new DescriptionIndexService();
+
+    private static Product product(String pId, String name, String description) {
+        Product product = new Product();
+        product.setpId(pId);
+        product.setpName(name);
+        product.setpDescription(description);
+        return product;
+    }
+
+    @Test
+    void everyTermMustMatchAndTheLastOneAsAPrefix() {
+        index.onProductUpserted(null, product("p1", null, "Stainless steel electric kettle"));
+        index.onProductUpserted(null, product("p2", null, "Steel water bottle"));
+        index.onProductUpserted(null, product("p3", null, "Electric toothbrush"));
+
+        assertEquals(List.of("p1", "p2"), index.search("steel"));
+        assertEquals(List.of("p1"), index.search("steel electric"));
+        assertEquals(List.of("p1", "p3"), index.search("electr"));
+        assertEquals(List.of("p1"), index.search("electric ket"));
+        // Only the last term is a prefix
+        assertEquals(List.of(), index.search("ste kettle"));
+        assertEquals(List.of(), index.search("steel toothbrush"));
+    }
+
+    @Test
+    void tokenizationIgnoresCaseAndPunctuation() {
+        index.onProductUpserted(null, product("p1", null, "USB-C charger, 65W (fast-charging)!"));
+
+        assertEquals(List.of("p1"), index.search("usb c"));
+        assertEquals(List.of("p1"), index.search("FAST  charging"));
+        assertEquals(List.of("p1"), index.search("65w"));
+        assertEquals(List.of(), index.search("usb-c-charger65"));
+        assertEquals(List.of(), index.search("  ,! "));
+    }
+
+    @Test
+    void commonWordsAreIndexedLikeAnyOther() {
+        // No stop-word list: the substring search this replaced matched every word too
+        index.onProductUpserted(null, product("p1", null, "The best of the season"));
+        index.onProductUpserted(null, product("p2", null, "Made for a family"));
+
+        assertEquals(List.of("p1"), index.search("the"));
+        assertEquals(List.of("p1"), index.search("of the"));
+        assertEquals(List.of("p2"), index.search("a"));
+    }
+
+    @Test
+    void namesAreIndexedOnlyWhenEnabled() {
+        index.onProductUpserted(null, product("p1", "Kettle", "Boils water"));
+        assertEquals(List.of(), index.search("kettle"));
+
+        DescriptionIndexService withNames = new DescriptionIndexService();
+        ReflectionTestUtils.setField(withNames, "includeNames", true);
+        withNames.onProductUpserted(null, product("p1", "Kettle", "Boils water"));
+        assertEquals(List.of("p1"), withNames.search("kettle water"));
+    }
+
+    @Test
+    void updateAndRemoveLeaveNoStalePostings() {
+        Product original = product("p1", null, "Red cotton shirt");
+        index.onProductUpserted(null, original);
+        index.onProductUpserted(null, product("p2", null, "Cotton socks"));
+        Product updated = product("p1", null, "Blue linen shirt");
+        index.onProductUpserted(original, updated);
+
+        assertEquals(List.of(), index.search("red"));
+        assertEquals(List.of("p2"), index.search("cotton"));
+        assertEquals(List.of("p1"), index.search("blue shirt"));
+
+        index.onProductRemoved(updated);
+        index.onProductRemoved(product("p2", null, null));
+
+        assertEquals(List.of(), index.search("shirt"));
+        assertTrue(((Map<?, ?>) ReflectionTestUtils.getField(index, "postings")).isEmpty());
+        assertTrue(((Map<?, ?>) ReflectionTestUtils.getField(index, "indexedTokens")).isEmpty());
+    }
+}
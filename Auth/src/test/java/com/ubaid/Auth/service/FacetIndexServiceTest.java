@@ -0,0 +1,92 @@
+package com.ubaid.Auth.service;
+
+import com.ubaid.Auth.model.Product;
+import com.ubaid.Auth.search.ProductFacet;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class FacetIndexServiceTest {
+
+    private final FacetIndexService index = new FacetIndexService();
+
+    private static Product product(String pId, String category, String brand, int price) {
+        Product product = new Product();
+        product.setpId(pId);
+        product.setCategory(category);
+        product.setpBrandName(brand);
+        product.setpSellingPrice(price);
+        return product;
+    }
+
+    @BeforeEach
+    void setUp() {
+        index.onProductUpserted(null, product("p1", "Shoes", "Acme", 700));
+        index.onProductUpserted(null, product("p2", "shoes", "Zed", 1200));
+        index.onProductUpserted(null, product("p3", "Bags", "Acme", 300));
+        index.onProductUpserted(null, product("p4", "Bags", null, 30000));
+    }
+
+    @Test
+    void selectionsOrWithinFacetAndAndAcrossFacets() {
+        FacetIndexService.FacetResult result = index.filter(Map.of(
+                ProductFacet.CATEGORY, Set.of("shoes", "bags"),
+                ProductFacet.BRAND, Set.of("acme")), 0, 10);
+
+        assertEquals(2, result.total());
+        assertEquals(List.of("p1", "p3"), result.productIds());
+    }
+
+    @Test
+    void countsAreDisjunctive() {
+        FacetIndexService.FacetResult result = index.filter(Map.of(ProductFacet.CATEGORY, Set.of("shoes")), 0, 10);
+
+        // The category's own selection does not narrow its counts; other facets are counted over the matches
+        assertEquals(Map.of("shoes", 2, "bags", 2), result.counts().get(ProductFacet.CATEGORY));
+        assertEquals(Map.of("acme", 1, "zed", 1), result.counts().get(ProductFacet.BRAND));
+        assertEquals(Map.of("500-999", 1, "1000-2499", 1), result.counts().get(ProductFacet.PRICE_BAND));
+    }
+
+    @Test
+    void unknownValueMatchesNothingAndEmptySelectionMatchesAll() {
+        assertEquals(0, index.filter(Map.of(ProductFacet.BRAND, Set.of("nobody")), 0, 10).total());
+        assertEquals(4, index.filter(Map.of(ProductFacet.BRAND, Set.of()), 0, 10).total());
+    }
+
+    @Test
+    void offsetAndLimitPageTheMatches() {
+        FacetIndexService.FacetResult result = index.filter(Map.of(), 1, 2);
+
+        assertEquals(4, result.total());
+        assertEquals(List.of("p2", "p3"), result.productIds());
+    }
+
+    @Test
+    void updateMovesBitsAndRemoveRecyclesDocIds() {
+        index.onProductUpserted(null, product("p3", "Shoes", "Acme", 300));
+        assertEquals(Map.of("shoes", 3, "bags", 1), index.filter(Map.of(), 0, 10).counts().get(ProductFacet.CATEGORY));
+
+        index.onProductRemoved(product("p1", null, null, 0));
+        index.onProductUpserted(null, product("p5", "Hats", null, 50));
+
+        FacetIndexService.FacetResult result = index.filter(Map.of(), 0, 10);
+        assertEquals(4, result.total());
+        // p5 reuses p1's document number, so it takes p1's place in doc order
+        assertEquals(List.of("p5", "p2", "p3", "p4"), result.productIds());
+        assertEquals(Map.of("shoes", 2, "bags", 1, "hats", 1), result.counts().get(ProductFacet.CATEGORY));
+        assertEquals(Map.of("acme", 1, "zed", 1), result.counts().get(ProductFacet.BRAND));
+    }
+
+    @Test
+    void priceBandsCoverEveryPrice() {
+        assertEquals("0-499", ProductFacet.priceBand(-5));
+        assertEquals("0-499", ProductFacet.priceBand(499));
+        assertEquals("500-999", ProductFacet.priceBand(500));
+        assertEquals("25000+", ProductFacet.priceBand(25000));
+    }
+}
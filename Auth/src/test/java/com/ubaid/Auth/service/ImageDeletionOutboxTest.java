@@ -0,0 +1,118 @@
+package com.ubaid.Auth.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class ImageDeletionOutboxTest {
+
+    private static final String A = "https://res.cloudinary.com/demo/image/upload/v1/products/a.jpg";
+    private static final String B = "https://res.cloudinary.com/demo/image/upload/v1/products/b.jpg";
+    private static final String C = "https://res.cloudinary.com/demo/image/upload/v1/products/c.jpg";
+
+    @TempDir
+    Path dataDir;
+
+    private final CloudinaryService cloudinary = mock(CloudinaryService.class);
+    // URLs the stubbed bulk delete reports as deleted
+    private final Set<String> deletable = new HashSet<>();
+
+    @BeforeEach
+    void setUp() {
+        when(cloudinary.isCloudinaryUrl(anyString())).thenAnswer(call -> ((String) call.getArgument(0)).contains("cloudinary.com"));
+        when(cloudinary.deleteImages(any(String[].class))).thenAnswer(call -> {
+            Map<String, Boolean> results = new LinkedHashMap<>();
+            for (Object url : call.getArguments()) {
+                results.put((String) url, deletable.contains(url));
+            }
+            return results;
+        });
+    }
+
+    private Path log() {
+        return dataDir.resolve("outbox/image-deletions.log");
+    }
+
+    private ImageDeletionOutbox open(int maxAttempts, int compactThreshold) throws IOException {
+        ImageDeletionOutbox outbox = new ImageDeletionOutbox(cloudinary, log(), 100, 60_000, 3_600_000, maxAttempts, compactThreshold);
+        outbox.open();
+        return outbox;
+    }
+
+    @Test
+    void pendingDeletionsSurviveARestart() throws IOException {
+        ImageDeletionOutbox outbox = open(20, 10_000);
+        outbox.enqueue(List.of(A, B, C, "https://lh3.googleusercontent.com/photo.jpg"));
+        deletable.add(A);
+        outbox.drain();
+        assertEquals(2, outbox.pendingCount());
+        outbox.close();
+
+        ImageDeletionOutbox restarted = open(20, 10_000);
+        assertEquals(2, restarted.pendingCount());
+        // Reopening compacts the log down to the pending deletions
+        assertEquals("+" + B + "\n+" + C + "\n", Files.readString(log(), StandardCharsets.UTF_8));
+
+        deletable.addAll(List.of(B, C));
+        restarted.drain();
+        assertEquals(0, restarted.pendingCount());
+        restarted.close();
+
+        assertEquals(0, open(20, 10_000).pendingCount());
+    }
+
+    @Test
+    void replayIgnoresATornFinalRecord() throws IOException {
+        Files.createDirectories(log().getParent());
+        Files.writeString(log(), "+" + A + "\n+" + B + "\n-" + A + "\n+" + C, StandardCharsets.UTF_8);
+
+        ImageDeletionOutbox outbox = open(20, 10_000);
+
+        assertEquals(1, outbox.pendingCount());
+        assertEquals("+" + B + "\n", Files.readString(log(), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void completedDeletionsAreCompactedAway() throws IOException {
+        ImageDeletionOutbox outbox = open(20, 2);
+        outbox.enqueue(List.of(A, B, C));
+        assertEquals(3, Files.readAllLines(log()).size());
+
+        deletable.addAll(List.of(A, B, C));
+        outbox.drain();
+
+        assertEquals(0, outbox.pendingCount());
+        assertEquals("", Files.readString(log(), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void failedDeletionsWaitForBackoffAndAreDroppedAfterMaxAttempts() throws IOException {
+        ImageDeletionOutbox outbox = open(2, 10_000);
+        outbox.enqueue(List.of(A));
+
+        outbox.drain();
+        // Not due again for a minute
+        outbox.drain();
+        verify(cloudinary, times(1)).deleteImages(any(String[].class));
+        assertEquals(1, outbox.pendingCount());
+        outbox.close();
+
+        // Attempt counts are not persisted: after a restart the entry is due at once
+        ImageDeletionOutbox restarted = open(1, 10_000);
+        restarted.drain();
+        assertEquals(0, restarted.pendingCount());
+        restarted.close();
+        assertEquals(0, open(1, 10_000).pendingCount());
+    }
+}
@@ -0,0 +1,67 @@
+package com.ubaid.Auth.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class ImageUploadServiceTest {
+
+    private final CloudinaryService cloudinary = mock(CloudinaryService.class);
+    private final ImageDeletionOutbox outbox = mock(ImageDeletionOutbox.class);
+    private final ImageUploadService uploads = new ImageUploadService(cloudinary, outbox, 4, 16, 2, 5_000);
+
+    @AfterEach
+    void tearDown() {
+        uploads.shutdown();
+    }
+
+    private static List<MultipartFile> files(int count) {
+        List<MultipartFile> files = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            files.add(new MockMultipartFile("files", "f" + i + ".jpg", "image/jpeg", new byte[]{(byte) i}));
+        }
+        return files;
+    }
+
+    @Test
+    void uploadsKeepFileOrder() throws IOException {
+        when(cloudinary.uploadImage(any(), anyString()))
+                .thenAnswer(call -> "url-" + ((MultipartFile) call.getArgument(0)).getOriginalFilename());
+
+        assertEquals(List.of("url-f0.jpg", "url-f1.jpg", "url-f2.jpg"), uploads.uploadAll(files(3), "products"));
+    }
+
+    @Test
+    void failedUploadStopsTheOtherWorkers() throws IOException {
+        AtomicInteger attempts = new AtomicInteger();
+        when(cloudinary.uploadImage(any(), anyString())).thenAnswer(call -> {
+            attempts.incrementAndGet();
+            String name = ((MultipartFile) call.getArgument(0)).getOriginalFilename();
+            if (name.equals("f1.jpg")) {
+                throw new IOException("upload rejected");
+            }
+            // The other worker is still busy when f1 fails
+            Thread.sleep(300);
+            return "url-" + name;
+        });
+
+        IOException error = assertThrows(IOException.class, () -> uploads.uploadAll(files(6), "products"));
+
+        assertEquals("upload rejected", error.getMessage());
+        // Only the two files already in flight were attempted; the finished one is cleaned up
+        assertEquals(2, attempts.get());
+        verify(outbox, timeout(1_000)).enqueue(List.of("url-f0.jpg"));
+    }
+}
@@ -0,0 +1,89 @@
+package com.ubaid.Auth.service;
+
+import com.ubaid.Auth.model.Product;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class KeywordIndexServiceTest {
+
+    private final KeywordIndexService index = new KeywordIndexService();
+
+    private static Product product(String pId, String... keywords) {
+        Product product = new Product();
+        product.setpId(pId);
+        product.setKeywords(Arrays.asList(keywords));
+        return product;
+    }
+
+    @Test
+    void shortQueriesAreDirectGramLookups() {
+        index.onProductUpserted(null, product("p1", "kettle"));
+        index.onProductUpserted(null, product("p2", "bottle"));
+
+        assertEquals(List.of("p1", "p2"), index.search(List.of("t")));
+        assertEquals(List.of("p1", "p2"), index.search(List.of("tle")));
+        assertEquals(List.of("p1"), index.search(List.of("ke")));
+        assertEquals(List.of(), index.search(List.of("z")));
+    }
+
+    @Test
+    void longQueriesMatchAnySubstringOfAKeyword() {
+        index.onProductUpserted(null, product("p1", "stainless steel"));
+        index.onProductUpserted(null, product("p2", "steam iron"));
+
+        // Prefix, infix and suffix
+        assertEquals(List.of("p2"), index.search(List.of("stea")));
+        assertEquals(List.of("p1"), index.search(List.of("inless")));
+        assertEquals(List.of("p1"), index.search(List.of("s steel")));
+        assertEquals(List.of("p1", "p2"), index.search(List.of("ste")));
+        // Every trigram occurs somewhere, but not as one substring
+        assertEquals(List.of(), index.search(List.of("steamless")));
+    }
+
+    @Test
+    void anyQueryKeywordMayMatch() {
+        index.onProductUpserted(null, product("p1", "kettle"));
+        index.onProductUpserted(null, product("p2", "toaster"));
+        index.onProductUpserted(null, product("p3", "mixer"));
+
+        assertEquals(List.of("p1", "p2"), index.search(List.of("kett", "oast", "")));
+    }
+
+    @Test
+    void keywordsAndQueriesAreCaseFoldedAndTrimmed() {
+        index.onProductUpserted(null, product("p1", "  Ceramic MUG ", null, ""));
+
+        assertEquals(List.of("p1"), index.search(List.of("mug")));
+        assertEquals(List.of("p1"), index.search(List.of(" CERAMIC ")));
+        assertEquals(List.of(), index.search(List.of("  ")));
+    }
+
+    @Test
+    void updateAndRemoveLeaveNoStalePostings() {
+        Product original = product("p1", "red", "cotton");
+        index.onProductUpserted(null, original);
+        index.onProductUpserted(null, product("p2", "cotton"));
+        Product updated = product("p1", "blue", "cotton");
+        index.onProductUpserted(original, updated);
+
+        assertEquals(List.of(), index.search(List.of("red")));
+        assertEquals(List.of("p1"), index.search(List.of("blu")));
+        assertEquals(List.of("p1", "p2"), index.search(List.of("cotton")));
+
+        index.onProductRemoved(updated);
+        assertEquals(List.of("p2"), index.search(List.of("cotton")));
+        assertEquals(List.of(), index.search(List.of("blue")));
+
+        index.onProductRemoved(product("p2"));
+        assertTrue(((Map<?, ?>) ReflectionTestUtils.getField(index, "keywordProducts")).isEmpty());
+        assertTrue(((Map<?, ?>) ReflectionTestUtils.getField(index, "gramKeywords")).isEmpty());
+        assertTrue(((Map<?, ?>) ReflectionTestUtils.getField(index, "indexedKeywords")).isEmpty());
+    }
+}
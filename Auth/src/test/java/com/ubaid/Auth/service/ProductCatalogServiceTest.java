@@ -0,0 +1,244 @@
+package com.ubaid.Auth.service;
+
+import com.google.firebase.FirebaseApp;
+import com.google.firebase.database.*;
+import com.ubaid.Auth.mapper.FirebaseSnapshotMapper;
+import com.ubaid.Auth.model.Product;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.MockedStatic;
+import org.springframework.beans.factory.ObjectProvider;
+
+import java.io.IOException;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+/**
+ * The Firebase listener path against a mocked database: the test plays the SDK and delivers the
+ * child, value and single-read callbacks itself.
+ */
+class ProductCatalogServiceTest {
+
+    private final FirebaseDatabase database = mock(FirebaseDatabase.class);
+    private final DatabaseReference productsRef = mock(DatabaseReference.class);
+    private final CatalogSnapshotStore snapshotStore = mock(CatalogSnapshotStore.class);
+    private final List<String> events = Collections.synchronizedList(new ArrayList<>());
+    // Single-read listeners registered by the fallback, by product ID
+    private final Map<String, ValueEventListener> reads = new ConcurrentHashMap<>();
+    private MockedStatic<FirebaseDatabase> firebase;
+
+    @BeforeEach
+    void setUp() {
+        firebase = mockStatic(FirebaseDatabase.class);
+        firebase.when(() -> FirebaseDatabase.getInstance(any(FirebaseApp.class))).thenReturn(database);
+        when(database.getReference("products")).thenReturn(productsRef);
+    }
+
+    @AfterEach
+    void tearDown() {
+        firebase.close();
+    }
+
+    private ProductCatalogService catalog(long fetchTimeoutMs) {
+        CatalogChangeListener recorder = new CatalogChangeListener() {
+            @Override
+            public void onProductUpserted(Product previous, Product current) {
+                events.add((previous == null ? "add " : "update ") + current.getpId());
+            }
+
+            @Override
+            public void onProductRemoved(Product removed) {
+                events.add("remove " + removed.getpId());
+            }
+        };
+        ObjectProvider<CatalogChangeListener> listeners = mock();
+        when(listeners.orderedStream()).thenReturn(Stream.of(recorder));
+        return new ProductCatalogService(mock(FirebaseApp.class), listeners, snapshotStore, fetchTimeoutMs);
+    }
+
+    private static Map<String, Object> values(String pId, String name) {
+        Map<String, Object> values = new HashMap<>();
+        values.put("pId", pId);
+        values.put("pName", name);
+        return values;
+    }
+
+    private static Product product(String pId, String name) {
+        return FirebaseSnapshotMapper.toProduct(values(pId, name));
+    }
+
+    private static DataSnapshot snapshot(String key, Map<String, Object> values) {
+        DataSnapshot snapshot = mock(DataSnapshot.class);
+        when(snapshot.getKey()).thenReturn(key);
+        when(snapshot.getValue()).thenReturn(values);
+        return snapshot;
+    }
+
+    /**
+     * Answers each single read with the given callback; a null callback leaves the read unanswered
+     */
+    private void onRead(BiConsumer<String, ValueEventListener> answer) {
+        when(productsRef.child(anyString())).thenAnswer(invocation -> {
+            String pId = invocation.getArgument(0);
+            DatabaseReference child = mock(DatabaseReference.class);
+            doAnswer(read -> {
+                ValueEventListener listener = read.getArgument(0);
+                reads.put(pId, listener);
+                if (answer != null) {
+                    answer.accept(pId, listener);
+                }
+                return null;
+            }).when(child).addListenerForSingleValueEvent(any());
+            return child;
+        });
+    }
+
+    @Test
+    void initialSyncReconcilesTheRestoredSnapshot() throws IOException {
+        when(snapshotStore.isEnabled()).thenReturn(true);
+        when(snapshotStore.load()).thenReturn(new CatalogSnapshotStore.Snapshot(7, List.of(
+                product("p1", "Kettle"), product("p2", "Toaster"), product("p3", "Blender"))));
+        ProductCatalogService catalog = catalog(10_000);
+
+        catalog.subscribe();
+
+        assertTrue(catalog.isReady());
+        assertFalse(catalog.isSynced());
+        assertEquals(7, catalog.getVersion());
+        assertEquals(List.of("add p1", "add p2", "add p3"), events);
+        ArgumentCaptor<ChildEventListener> children = ArgumentCaptor.forClass(ChildEventListener.class);
+        ArgumentCaptor<ValueEventListener> initialSync = ArgumentCaptor.forClass(ValueEventListener.class);
+        verify(productsRef).addChildEventListener(children.capture());
+        verify(productsRef).addListenerForSingleValueEvent(initialSync.capture());
+        events.clear();
+
+        // The initial child events replay every product; only real changes reach the listeners
+        children.getValue().onChildAdded(snapshot("p1", values("p1", "Kettle")), null);
+        children.getValue().onChildAdded(snapshot("p2", values("p2", "Toaster XL")), "p1");
+        children.getValue().onChildAdded(snapshot("p4", values(null, "Mixer")), "p2");
+        assertEquals(List.of("update p2", "add p4"), events);
+        assertEquals(9, catalog.getVersion());
+
+        // Not yet reconciled, so p3 may have been deleted while the node was down
+        catalog.checkpoint();
+        verify(snapshotStore, never()).save(anyLong(), any());
+
+        DataSnapshot all = mock(DataSnapshot.class);
+        when(all.hasChild(anyString())).thenAnswer(invocation -> Set.of("p1", "p2", "p4").contains(invocation.getArgument(0)));
+        initialSync.getValue().onDataChange(all);
+
+        assertEquals(List.of("update p2", "add p4", "remove p3"), events);
+        assertTrue(catalog.isSynced());
+        assertEquals(10, catalog.getVersion());
+        assertEquals(3, catalog.size());
+        assertNull(catalog.getProduct("p3"));
+        assertEquals("p4", catalog.getProduct("p4").getpId());
+
+        catalog.checkpoint();
+        verify(snapshotStore).save(eq(10L), any());
+    }
+
+    @Test
+    void failedInitialSyncStopsServingTheSnapshot() {
+        when(snapshotStore.isEnabled()).thenReturn(true);
+        when(snapshotStore.load()).thenReturn(new CatalogSnapshotStore.Snapshot(3, List.of(product("p1", "Kettle"))));
+        ProductCatalogService catalog = catalog(10_000);
+        catalog.subscribe();
+        ArgumentCaptor<ValueEventListener> initialSync = ArgumentCaptor.forClass(ValueEventListener.class);
+        verify(productsRef).addListenerForSingleValueEvent(initialSync.capture());
+
+        initialSync.getValue().onCancelled(mock(DatabaseError.class));
+
+        assertFalse(catalog.isReady());
+        assertFalse(catalog.isSynced());
+    }
+
+    @Test
+    void readyCatalogIsServedFromMemory() throws InterruptedException {
+        when(snapshotStore.isEnabled()).thenReturn(true);
+        when(snapshotStore.load()).thenReturn(new CatalogSnapshotStore.Snapshot(1, List.of(product("p1", "Kettle"))));
+        ProductCatalogService catalog = catalog(10_000);
+        catalog.subscribe();
+
+        assertEquals(Set.of("p1"), catalog.getProducts(List.of("p1", "p2", "p1")).keySet());
+        verify(productsRef, never()).child(anyString());
+    }
+
+    @Test
+    void fallbackFetchesEachValidIdOnceWithBoundedFanOut() throws InterruptedException {
+        ScheduledExecutorService firebaseThread = Executors.newSingleThreadScheduledExecutor();
+        AtomicInteger inFlight = new AtomicInteger();
+        AtomicInteger maxInFlight = new AtomicInteger();
+        onRead((pId, listener) -> {
+            maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+            firebaseThread.schedule(() -> {
+                inFlight.decrementAndGet();
+                listener.onDataChange(snapshot(pId, values(pId.equals("p0") ? null : pId, "Product " + pId)));
+            }, 5, TimeUnit.MILLISECONDS);
+        });
+        List<String> pIds = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            pIds.add("p" + i);
+        }
+        pIds.addAll(List.of("p3", "p5", "a/b", "", "x.y"));
+
+        try {
+            Map<String, Product> found = catalog(10_000).getProducts(pIds);
+
+            assertEquals(20, found.size());
+            assertEquals("p0", found.get("p0").getpId());
+            assertEquals(20, reads.size());
+            assertTrue(maxInFlight.get() <= 8, "in flight: " + maxInFlight.get());
+        } finally {
+            firebaseThread.shutdownNow();
+        }
+    }
+
+    @Test
+    void fallbackReturnsPartialResultsAtTheDeadline() throws InterruptedException {
+        onRead((pId, listener) -> {
+            switch (pId) {
+                case "found" -> listener.onDataChange(snapshot(pId, values(pId, "Kettle")));
+                case "missing" -> listener.onDataChange(snapshot(pId, null));
+                case "cancelled" -> listener.onCancelled(mock(DatabaseError.class));
+                case "broken" -> throw new IllegalStateException("Client offline");
+                default -> {
+                    // Never answered
+                }
+            }
+        });
+
+        long start = System.currentTimeMillis();
+        Map<String, Product> found = catalog(300).getProducts(List.of("found", "missing", "cancelled", "broken", "silent"));
+        long elapsed = System.currentTimeMillis() - start;
+
+        assertEquals(Set.of("found"), found.keySet());
+        assertTrue(elapsed >= 250 && elapsed < 2_000, "elapsed: " + elapsed);
+    }
+
+    @Test
+    void fallbackStopsWaitingForAReadSlotAtTheDeadline() throws InterruptedException {
+        onRead(null);
+        List<String> pIds = new ArrayList<>();
+        for (int i = 0; i < 12; i++) {
+            pIds.add("p" + i);
+        }
+
+        long start = System.currentTimeMillis();
+        Map<String, Product> found = catalog(200).getProducts(pIds);
+
+        assertTrue(found.isEmpty());
+        assertEquals(8, reads.size());
+        assertTrue(System.currentTimeMillis() - start < 2_000);
+    }
+}
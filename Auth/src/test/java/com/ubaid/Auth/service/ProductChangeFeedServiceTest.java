@@ -0,0 +1,156 @@
+package com.ubaid.Auth.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ubaid.Auth.model.Product;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.*;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProductChangeFeedServiceTest {
+
+    /**
+     * Records sent frames; a stalled emitter blocks every send until released, like a client that stopped reading
+     */
+    private static final class TestEmitter extends SseEmitter {
+        final List<String> frames = Collections.synchronizedList(new ArrayList<>());
+        final CountDownLatch release = new CountDownLatch(1);
+        final boolean stalled;
+        volatile boolean completed;
+        volatile Throwable error;
+
+        TestEmitter(boolean stalled) {
+            this.stalled = stalled;
+        }
+
+        @Override
+        public void send(Set<DataWithMediaType> items) throws IOException {
+            if (stalled) {
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    throw new IOException("Write interrupted", e);
+                }
+            }
+            StringBuilder frame = new StringBuilder();
+            items.forEach(item -> frame.append(item.getData()));
+            frames.add(frame.toString());
+        }
+
+        @Override
+        public void complete() {
+            completed = true;
+        }
+
+        @Override
+        public void completeWithError(Throwable ex) {
+            error = ex;
+            completed = true;
+        }
+    }
+
+    private final Queue<TestEmitter> emitters = new ConcurrentLinkedQueue<>();
+    private ProductChangeFeedService feed;
+
+    @AfterEach
+    void tearDown() {
+        emitters.forEach(emitter -> emitter.release.countDown());
+        feed.shutdown();
+    }
+
+    private ProductChangeFeedService feed(int bufferSize, long sendTimeoutMs) {
+        feed = new ProductChangeFeedService(new ObjectMapper(), null, 64, bufferSize, 100, 60_000, 2, sendTimeoutMs) {
+            @Override
+            SseEmitter createEmitter(long timeoutMs) {
+                return emitters.remove();
+            }
+        };
+        return feed;
+    }
+
+    private TestEmitter subscribe(boolean stalled) {
+        TestEmitter emitter = new TestEmitter(stalled);
+        emitters.add(emitter);
+        assertSame(emitter, feed.subscribe(null));
+        return emitter;
+    }
+
+    private void publishRemoval(String pId) {
+        Product product = new Product();
+        product.setpId(pId);
+        feed.onProductRemoved(product);
+    }
+
+    private static void await(BooleanSupplier condition, long timeoutMs) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + timeoutMs;
+        while (!condition.getAsBoolean() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertTrue(condition.getAsBoolean());
+    }
+
+    @Test
+    void stalledSubscriberIsEvictedWithoutDelayingOthers() throws InterruptedException {
+        feed(16, 1_000);
+        TestEmitter stalled = subscribe(true);
+        TestEmitter healthy = subscribe(false);
+
+        for (int i = 0; i < 3; i++) {
+            publishRemoval("p" + i);
+        }
+
+        // Delivered while the stalled write still holds its writer
+        await(() -> healthy.frames.size() == 3, 800);
+        assertFalse(stalled.completed);
+        assertTrue(healthy.frames.get(0).contains("\"pId\":\"p0\""));
+
+        await(() -> stalled.completed, 2_000);
+        assertInstanceOf(IOException.class, stalled.error);
+        assertEquals(1, feed.subscriberCount());
+        assertTrue(stalled.frames.isEmpty());
+
+        publishRemoval("p3");
+        await(() -> healthy.frames.size() == 4, 1_000);
+        assertFalse(healthy.completed);
+    }
+
+    @Test
+    void overflowingQueueDisconnectsOnlyThatSubscriber() throws InterruptedException {
+        feed(4, 60_000);
+        TestEmitter stalled = subscribe(true);
+        TestEmitter healthy = subscribe(false);
+
+        // The stalled subscriber holds at most one in-flight batch plus four queued frames
+        for (int i = 0; i < 10; i++) {
+            publishRemoval("p" + i);
+            int sent = i + 1;
+            await(() -> healthy.frames.size() == sent, 1_000);
+        }
+
+        assertEquals(1, feed.subscriberCount());
+        stalled.release.countDown();
+        await(() -> stalled.completed, 1_000);
+        assertNull(stalled.error);
+        assertTrue(stalled.frames.size() <= 4);
+        assertFalse(healthy.completed);
+    }
+
+    @Test
+    void shutdownCompletesEverySubscriber() throws InterruptedException {
+        feed(16, 60_000);
+        TestEmitter first = subscribe(false);
+        TestEmitter second = subscribe(false);
+
+        feed.shutdown();
+
+        await(() -> first.completed && second.completed, 1_000);
+        assertEquals(0, feed.subscriberCount());
+    }
+}
@@ -0,0 +1,79 @@
+package com.ubaid.Auth.service;
+
+import com.ubaid.Auth.model.Product;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProductChangeLogServiceTest {
+
+    private static Product product(String pId, long seq) {
+        Product product = new Product();
+        product.setpId(pId);
+        product.setChangeSeq(seq);
+        return product;
+    }
+
+    private static List<Long> seqs(ProductChangeLogService.ChangeBatch batch) {
+        return batch.changes().stream().map(ProductChangeLogService.Change::seq).toList();
+    }
+
+    @Test
+    void settledChangesPageUntilExhausted() {
+        ProductChangeLogService changeLog = new ProductChangeLogService(null, 100, 0);
+        for (int i = 1; i <= 5; i++) {
+            changeLog.onProductUpserted(null, product("p" + i, i));
+        }
+
+        ProductChangeLogService.ChangeBatch first = changeLog.changesSince(1, 2);
+        assertEquals(List.of(2L, 3L), seqs(first));
+        assertEquals(3L, first.nextSince());
+        assertTrue(first.hasMore());
+
+        ProductChangeLogService.ChangeBatch second = changeLog.changesSince(first.nextSince(), 2);
+        assertEquals(List.of(4L, 5L), seqs(second));
+        assertFalse(second.hasMore());
+    }
+
+    @Test
+    void unsettledChangesDoNotReportMoreWithoutProgress() {
+        ProductChangeLogService changeLog = new ProductChangeLogService(null, 100, 60_000);
+        for (int i = 1; i <= 5; i++) {
+            changeLog.onProductUpserted(null, product("p" + i, i));
+        }
+
+        ProductChangeLogService.ChangeBatch batch = changeLog.changesSince(1, 2);
+
+        // Delivered early, but the cursor stays put until they settle, so there is nothing more to fetch now
+        assertEquals(List.of(2L, 3L), seqs(batch));
+        assertEquals(1L, batch.nextSince());
+        assertFalse(batch.hasMore());
+    }
+
+    @Test
+    void compactedCursorAsksForResync() {
+        ProductChangeLogService changeLog = new ProductChangeLogService(null, 2, 0);
+        for (int i = 1; i <= 4; i++) {
+            changeLog.onProductUpserted(null, product("p" + i, i));
+        }
+
+        ProductChangeLogService.ChangeBatch batch = changeLog.changesSince(1, 10);
+
+        assertTrue(batch.resync());
+        assertEquals(4L, batch.nextSince());
+        assertTrue(changeLog.changesSince(0, 10).resync());
+    }
+
+    @Test
+    void onlyLatestChangePerProductIsKept() {
+        ProductChangeLogService changeLog = new ProductChangeLogService(null, 100, 0);
+        changeLog.onProductUpserted(null, product("p1", 1));
+        changeLog.onProductUpserted(null, product("p2", 2));
+        changeLog.onProductUpserted(null, product("p1", 3));
+
+        assertEquals(List.of(2L, 3L), seqs(changeLog.changesSince(1, 10)));
+        assertEquals(3L, changeLog.latestSequence());
+    }
+}
@@ -0,0 +1,178 @@
+package com.ubaid.Auth.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ubaid.Auth.mapper.ProductDtoMapper;
+import com.ubaid.Auth.mapper.PublicProductField;
+import com.ubaid.Auth.model.Product;
+import com.ubaid.Auth.model.RatingSummary;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ProductJsonCacheServiceTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final RatingSummaryService ratingSummaries = mock(RatingSummaryService.class);
+    private final Map<String, RatingSummary> ratings = new HashMap<>();
+    private final ProductJsonCacheService cache = new ProductJsonCacheService(objectMapper, ratingSummaries);
+
+    @BeforeEach
+    void setUp() {
+        when(ratingSummaries.get(anyString())).thenAnswer(call -> ratings.get(call.<String>getArgument(0)));
+    }
+
+    private static Product product(String pId, String name) {
+        Product product = new Product();
+        product.setpId(pId);
+        product.setpName(name);
+        product.setpDescription("Description of " + name + " with \"quotes\" and ünïcode");
+        product.setpImages(List.of("https://res.cloudinary.com/demo/" + pId + ".jpg"));
+        product.setKeywords(Arrays.asList("one", null));
+        product.setpSellingPrice(1499);
+        product.setpMrp(1999);
+        product.setpCreditScore(42);
+        return product;
+    }
+
+    private static RatingSummary rating(long count, long sum) {
+        RatingSummary summary = new RatingSummary();
+        summary.setCount(count);
+        summary.setSum(sum);
+        return summary;
+    }
+
+    private byte[] dtoJson(Product product) throws Exception {
+        return objectMapper.writeValueAsBytes(ProductDtoMapper.toPublicDto(product, ratings.get(product.getpId())));
+    }
+
+    @Test
+    void sameInstancesHitTheCache() throws Exception {
+        Product product = product("p1", "Kettle");
+        ratings.put("p1", rating(2, 9));
+
+        byte[] first = cache.json(product);
+
+        assertSame(first, cache.json(product));
+        assertArrayEquals(dtoJson(product), first);
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    void upsertAndRemovalInvalidate() {
+        Product original = product("p1", "Kettle");
+        byte[] first = cache.json(original);
+        Product updated = product("p1", "Kettle");
+
+        cache.onProductUpserted(original, updated);
+        assertEquals(0, cache.size());
+        byte[] second = cache.json(updated);
+        assertNotSame(first, second);
+        assertArrayEquals(first, second);
+
+        cache.onProductRemoved(updated);
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void newProductInstanceIsReencodedEvenWithoutAnEvent() {
+        Product original = product("p1", "Kettle");
+        byte[] first = cache.json(original);
+
+        byte[] renamed = cache.json(product("p1", "Teapot"));
+
+        assertNotSame(first, renamed);
+        assertTrue(new String(renamed).contains("\"pName\":\"Teapot\""));
+    }
+
+    @Test
+    void newRatingSummaryInstanceIsReencoded() throws Exception {
+        Product product = product("p1", "Kettle");
+        ratings.put("p1", rating(1, 4));
+        byte[] first = cache.json(product);
+
+        // Summaries are replaced, never mutated: an equal but new instance still counts as a change
+        ratings.put("p1", rating(1, 4));
+        byte[] equalRating = cache.json(product);
+        assertNotSame(first, equalRating);
+
+        ratings.put("p1", rating(2, 9));
+        byte[] changed = cache.json(product);
+        assertArrayEquals(dtoJson(product), changed);
+        assertTrue(new String(changed).contains("\"ratingCount\":2"));
+
+        ratings.remove("p1");
+        assertTrue(new String(cache.json(product)).contains("\"ratingCount\":0"));
+    }
+
+    @Test
+    void writeArrayMatchesJacksonByteForByte() throws Exception {
+        List<Product> products = List.of(product("p1", "Kettle"), product("p2", "Mug"));
+        ratings.put("p2", rating(3, 12));
+        List<Object> dtos = new ArrayList<>();
+        for (Product product : products) {
+            dtos.add(ProductDtoMapper.toPublicDto(product, ratings.get(product.getpId())));
+        }
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        cache.writeArray(out, products, null);
+
+        assertArrayEquals(objectMapper.writeValueAsBytes(dtos), out.toByteArray());
+        assertArrayEquals(out.toByteArray(), cache.jsonArray(products, null));
+
+        ByteArrayOutputStream empty = new ByteArrayOutputStream();
+        cache.writeArray(empty, List.of(), null);
+        assertEquals("[]", empty.toString());
+    }
+
+    @Test
+    void writeObjectMatchesJacksonByteForByte() throws Exception {
+        List<Product> products = List.of(product("p1", "Kettle"), product("p2", "Mug"));
+        Map<String, Object> scalars = new LinkedHashMap<>();
+        scalars.put("nextCursor", "abc\"def");
+        scalars.put("hasMore", true);
+        scalars.put("total", 2);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        cache.writeObject(out, scalars, "products", products, null);
+
+        Map<String, Object> expected = new LinkedHashMap<>(scalars);
+        expected.put("products", products.stream().map(p -> ProductDtoMapper.toPublicDto(p, null)).toList());
+        assertArrayEquals(objectMapper.writeValueAsBytes(expected), out.toByteArray());
+    }
+
+    @Test
+    void writeBatchMatchesJacksonByteForByte() throws Exception {
+        Product found = product("p1", "Kettle");
+        ratings.put("p1", rating(1, 5));
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        cache.writeBatch(out, List.of("p1", "missing", "p1"), Map.of("p1", found), null);
+
+        Map<String, Object> hit = new LinkedHashMap<>();
+        hit.put("pId", "p1");
+        hit.put("found", true);
+        hit.put("product", ProductDtoMapper.toPublicDto(found, ratings.get("p1")));
+        Map<String, Object> miss = new LinkedHashMap<>();
+        miss.put("pId", "missing");
+        miss.put("found", false);
+        assertArrayEquals(objectMapper.writeValueAsBytes(List.of(hit, miss, hit)), out.toByteArray());
+    }
+
+    @Test
+    void projectedBatchEntriesBypassTheCache() throws Exception {
+        Product found = product("p1", "Kettle");
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        cache.writeBatch(out, List.of("p1"), Map.of("p1", found), EnumSet.of(PublicProductField.P_ID, PublicProductField.P_NAME));
+
+        assertEquals("[{\"pId\":\"p1\",\"found\":true,\"product\":{\"pId\":\"p1\",\"pName\":\"Kettle\"}}]", out.toString());
+        assertEquals(0, cache.size());
+    }
+}
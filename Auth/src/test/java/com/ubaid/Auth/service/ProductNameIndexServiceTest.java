@@ -0,0 +1,65 @@
+package com.ubaid.Auth.service;
+
+import com.ubaid.Auth.model.Product;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ProductNameIndexServiceTest {
+
+    private final ProductNameIndexService index = new ProductNameIndexService();
+
+    private static Product product(String pId, String name, String brand, int creditScore) {
+        Product product = new Product();
+        product.setpId(pId);
+        product.setpName(name);
+        product.setpBrandName(brand);
+        product.setpCreditScore(creditScore);
+        return product;
+    }
+
+    @Test
+    void searchByNameIsCaseInsensitivePrefixRankedByCreditScore() {
+        index.onProductUpserted(null, product("p1", "Running Shoe", "Acme", 10));
+        index.onProductUpserted(null, product("p2", "running shorts", "Zed", 40));
+        index.onProductUpserted(null, product("p3", "Rain Coat", "Acme", 90));
+
+        assertEquals(List.of("p2", "p1"), index.searchByName("RUN"));
+        assertEquals(List.of("p3", "p2", "p1"), index.searchByName("r"));
+    }
+
+    @Test
+    void emptySearchReturnsEveryNamedProduct() {
+        index.onProductUpserted(null, product("p1", "Lamp", null, 1));
+        index.onProductUpserted(null, product("p2", "  ", null, 2));
+        index.onProductUpserted(null, product("p3", null, "Brand", 3));
+
+        assertEquals(List.of("p2", "p1"), index.searchByName(""));
+    }
+
+    @Test
+    void suggestMergesNamesAndBrands() {
+        index.onProductUpserted(null, product("p1", "Acme Kettle", "Other", 5));
+        index.onProductUpserted(null, product("p2", "Toaster", "Acme", 50));
+
+        assertEquals(List.of("p2", "p1"), index.suggest("ac", 10));
+        assertEquals(List.of("p2"), index.suggest("ac", 1));
+    }
+
+    @Test
+    void updateAndRemoveMoveProductOutOfOldKeys() {
+        Product original = product("p1", "Blue Mug", "Acme", 5);
+        index.onProductUpserted(null, original);
+        Product renamed = product("p1", "Green Mug", "Acme", 5);
+        index.onProductUpserted(original, renamed);
+
+        assertEquals(List.of(), index.searchByName("blue"));
+        assertEquals(List.of("p1"), index.searchByName("green"));
+
+        index.onProductRemoved(renamed);
+        assertEquals(List.of(), index.searchByName("green"));
+        assertEquals(List.of(), index.suggest("acme", 10));
+    }
+}
@@ -0,0 +1,103 @@
+package com.ubaid.Auth.service;
+
+import com.ubaid.Auth.model.Product;
+import com.ubaid.Auth.search.ProductSortField;
+import com.ubaid.Auth.search.SortKey;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProductSortIndexServiceTest {
+
+    private final ProductSortIndexService index = new ProductSortIndexService();
+
+    private static Product product(String pId, int price) {
+        Product product = new Product();
+        product.setpId(pId);
+        product.setpSellingPrice(price);
+        return product;
+    }
+
+    private List<String> ids(List<SortKey> keys) {
+        return keys.stream().map(SortKey::pId).toList();
+    }
+
+    @Test
+    void pagesFollowCursorInBothDirections() {
+        for (int i = 1; i <= 5; i++) {
+            index.onProductUpserted(null, product("p" + i, i * 100));
+        }
+
+        List<SortKey> first = index.page(ProductSortField.PRICE, false, null, 2);
+        assertEquals(List.of("p1", "p2"), ids(first));
+        assertEquals(List.of("p3", "p4"), ids(index.page(ProductSortField.PRICE, false, first.get(1), 2)));
+
+        List<SortKey> top = index.page(ProductSortField.PRICE, true, null, 2);
+        assertEquals(List.of("p5", "p4"), ids(top));
+        assertEquals(List.of("p3", "p2", "p1"), ids(index.page(ProductSortField.PRICE, true, top.get(1), 10)));
+    }
+
+    @Test
+    void updatedProductAppearsOnceAtItsNewPosition() {
+        Product cheap = product("p1", 100);
+        index.onProductUpserted(null, cheap);
+        index.onProductUpserted(null, product("p2", 200));
+
+        index.onProductUpserted(cheap, product("p1", 300));
+
+        assertEquals(List.of("p2", "p1"), ids(index.page(ProductSortField.PRICE, false, null, 10)));
+    }
+
+    @Test
+    void removedProductLeavesEveryView() {
+        Product product = product("p1", 100);
+        index.onProductUpserted(null, product);
+        index.onProductRemoved(product);
+
+        for (ProductSortField field : ProductSortField.values()) {
+            assertEquals(List.of(), index.page(field, false, null, 10));
+        }
+    }
+
+    @Test
+    void readsDuringAnUpdateSeeTheProductExactlyOnce() {
+        List<List<String>> reads = new ArrayList<>();
+        ProductSortIndexService[] observed = new ProductSortIndexService[1];
+        // Every view change first reads the price view, as a concurrent page request could
+        observed[0] = new ProductSortIndexService(() -> new ConcurrentSkipListSet<>() {
+            @Override
+            public boolean add(SortKey key) {
+                readPrices();
+                return super.add(key);
+            }
+
+            @Override
+            public boolean remove(Object key) {
+                readPrices();
+                return super.remove(key);
+            }
+
+            private void readPrices() {
+                if (observed[0] != null) {
+                    reads.add(ids(observed[0].page(ProductSortField.PRICE, false, null, 10)));
+                }
+            }
+        });
+        Product cheap = product("p1", 100);
+        observed[0].onProductUpserted(null, cheap);
+        observed[0].onProductUpserted(null, product("p2", 200));
+        reads.clear();
+
+        observed[0].onProductUpserted(cheap, product("p1", 300));
+
+        assertFalse(reads.isEmpty());
+        for (List<String> read : reads) {
+            assertTrue(read.equals(List.of("p1", "p2")) || read.equals(List.of("p2", "p1")), read.toString());
+        }
+        assertEquals(List.of("p2", "p1"), ids(observed[0].page(ProductSortField.PRICE, false, null, 10)));
+    }
+}
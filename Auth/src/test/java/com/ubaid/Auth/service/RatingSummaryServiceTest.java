@@ -0,0 +1,85 @@
+package com.ubaid.Auth.service;
+
+import com.ubaid.Auth.model.RatingSummary;
+import com.ubaid.Auth.model.Review;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RatingSummaryServiceTest {
+
+    private final RatingSummaryService service = new RatingSummaryService(null, null);
+
+    private static Review review(String productId, int rating) {
+        Review review = new Review();
+        review.setProductId(productId);
+        review.setRating(rating);
+        return review;
+    }
+
+    private static RatingSummary summary(long count, long sum, Long... histogram) {
+        return new RatingSummary(count, sum, List.of(histogram));
+    }
+
+    @Test
+    void ratingRangeIsZeroToFive() {
+        assertTrue(RatingSummary.isValidRating(0));
+        assertTrue(RatingSummary.isValidRating(5));
+        assertFalse(RatingSummary.isValidRating(-1));
+        assertFalse(RatingSummary.isValidRating(6));
+    }
+
+    @Test
+    void recordRatingRejectsOutOfRangeBeforeTouchingFirebase() {
+        assertThrows(IllegalArgumentException.class, () -> service.recordRating("p1", -1));
+        assertThrows(IllegalArgumentException.class, () -> service.recordRating("p1", 6));
+    }
+
+    @Test
+    void transactionStartsFromAnEmptySummary() {
+        assertEquals(summary(1, 4, 0L, 0L, 0L, 0L, 1L, 0L), RatingSummaryService.withRating(null, 4));
+        assertEquals(summary(1, 0, 1L, 0L, 0L, 0L, 0L, 0L), RatingSummaryService.withRating(null, 0));
+    }
+
+    @Test
+    void transactionAddsToTheStoredSummary() {
+        Map<String, Object> stored = RatingSummaryService.toMap(summary(3, 11, 0L, 0L, 1L, 0L, 1L, 1L));
+
+        RatingSummary updated = RatingSummaryService.withRating(stored, 5);
+
+        assertEquals(summary(4, 16, 0L, 0L, 1L, 0L, 1L, 2L), updated);
+        assertEquals(4.0, updated.average());
+    }
+
+    @Test
+    void rebuildCountsEachProductAndSkipsInvalidReviews() {
+        Map<String, RatingSummary> summaries = RatingSummaryService.summarize(List.of(
+                review("p1", 5), review("p1", 3), review("p1", 5), review("p2", 0),
+                review("p2", 6), review("p3", -1), review(null, 4)));
+
+        assertEquals(Map.of(
+                "p1", summary(3, 13, 0L, 0L, 0L, 1L, 0L, 2L),
+                "p2", summary(1, 0, 1L, 0L, 0L, 0L, 0L, 0L)), summaries);
+    }
+
+    @Test
+    void versionChangesOnlyWhenASummaryChanges() {
+        long start = service.getVersion();
+
+        service.store("p1", summary(1, 4, 0L, 0L, 0L, 0L, 1L, 0L));
+        assertEquals(start + 1, service.getVersion());
+
+        // Listener replays after a reconnect carry equal summaries
+        service.store("p1", summary(1, 4, 0L, 0L, 0L, 0L, 1L, 0L));
+        service.store("p2", null);
+        assertEquals(start + 1, service.getVersion());
+
+        service.store("p1", summary(2, 9, 0L, 0L, 0L, 0L, 1L, 1L));
+        assertEquals(start + 2, service.getVersion());
+        assertEquals(4.5, service.get("p1").average());
+        assertNull(service.get("p2"));
+    }
+}
@@ -0,0 +1,90 @@
+package com.ubaid.Auth.service;
+
+import com.ubaid.Auth.model.Review;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReviewStorageServiceTest {
+
+    private static Review review(String id, String productId) {
+        Review review = new Review();
+        review.setId(id);
+        review.setProductId(productId);
+        return review;
+    }
+
+    /**
+     * What the bucket query returns: orderByKey, endAt(before), limitToLast(limit + 1, or + 2 with a cursor)
+     */
+    private static List<Review> bucketQuery(List<Review> bucket, int limit, String before) {
+        List<Review> range = bucket.stream()
+                .filter(r -> before == null || r.getId().compareTo(before) <= 0)
+                .sorted(Comparator.comparing(Review::getId))
+                .toList();
+        int count = limit + (before != null ? 2 : 1);
+        return range.subList(Math.max(0, range.size() - count), range.size());
+    }
+
+    private static List<String> ids(List<Review> reviews) {
+        return reviews.stream().map(Review::getId).toList();
+    }
+
+    @Test
+    void cursorWalksEveryReviewAcrossBucketAndLegacyNode() {
+        // r1..r7 are oldest to newest; r3 and r5 were migrated and exist in both places
+        List<Review> bucket = List.of(review("r2", "p1"), review("r3", "p1"), review("r5", "p1"), review("r7", "p1"));
+        List<Review> legacy = List.of(review("r1", "p1"), review("r3", "p1"), review("r4", "p1"), review("r5", "p1"), review("r6", "p1"));
+
+        List<String> walked = new ArrayList<>();
+        List<Integer> pageSizes = new ArrayList<>();
+        String before = null;
+        do {
+            ReviewStorageService.ReviewPage page = ReviewStorageService.mergePage(bucketQuery(bucket, 2, before), legacy, 2, before);
+            walked.addAll(ids(page.reviews()));
+            pageSizes.add(page.reviews().size());
+            before = page.nextBefore();
+        } while (before != null);
+
+        assertEquals(List.of("r7", "r6", "r5", "r4", "r3", "r2", "r1"), walked);
+        assertEquals(List.of(2, 2, 2, 1), pageSizes);
+    }
+
+    @Test
+    void lastFullPageHasNoCursor() {
+        List<Review> bucket = List.of(review("r1", "p1"), review("r2", "p1"));
+
+        ReviewStorageService.ReviewPage page = ReviewStorageService.mergePage(bucketQuery(bucket, 2, null), List.of(), 2, null);
+
+        assertEquals(List.of("r2", "r1"), ids(page.reviews()));
+        assertNull(page.nextBefore());
+    }
+
+    @Test
+    void withoutLimitEveryReviewIsReturnedNewestFirst() {
+        ReviewStorageService.ReviewPage page = ReviewStorageService.mergePage(
+                List.of(review("r1", "p1"), review("r3", "p1")), List.of(review("r2", "p1")), null, null);
+
+        assertEquals(List.of("r3", "r2", "r1"), ids(page.reviews()));
+        assertNull(page.nextBefore());
+    }
+
+    @Test
+    void migrationSkipsReviewsWithoutAUsableProductId() {
+        Map<String, Review> legacy = new LinkedHashMap<>();
+        legacy.put("r1", review(null, "p1"));
+        legacy.put("r2", review(null, "shoes/red"));
+        legacy.put("r3", review(null, "p.1"));
+        legacy.put("r4", review(null, "p#1"));
+        legacy.put("r5", review(null, ""));
+        legacy.put("r6", null);
+        legacy.put("r7", review(null, "p2"));
+
+        Map<String, Review> updates = ReviewStorageService.bucketUpdates(legacy);
+
+        assertEquals(List.of("productReviews/p1/r1", "productReviews/p2/r7"), new ArrayList<>(updates.keySet()));
+        assertEquals("r1", updates.get("productReviews/p1/r1").getId());
+    }
+}
@@ -0,0 +1,53 @@
+package com.ubaid.Auth.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class SearchResultCacheServiceTest {
+
+    private final AtomicInteger loads = new AtomicInteger();
+
+    private byte[] load() {
+        return new byte[]{(byte) loads.incrementAndGet()};
+    }
+
+    @Test
+    void entriesAreKeyedOnCatalogAndRatingsVersion() {
+        SearchResultCacheService cache = new SearchResultCacheService(10);
+
+        assertArrayEquals(new byte[]{1}, cache.get("name", "lamp", 1, 1, this::load));
+        assertArrayEquals(new byte[]{1}, cache.get("name", "lamp", 1, 1, this::load));
+        // A rating change must not serve the old encoding, but also does not flush other entries
+        assertArrayEquals(new byte[]{2}, cache.get("name", "lamp", 1, 2, this::load));
+        assertArrayEquals(new byte[]{3}, cache.get("name", "lamp", 2, 2, this::load));
+
+        assertEquals(3, cache.stats().misses());
+        assertEquals(1, cache.stats().hits());
+        assertEquals(3, cache.stats().size());
+    }
+
+    @Test
+    void leastRecentlyUsedEntryIsEvicted() {
+        SearchResultCacheService cache = new SearchResultCacheService(2);
+        cache.get("name", "a", 1, 0, this::load);
+        cache.get("name", "b", 1, 0, this::load);
+        cache.get("name", "a", 1, 0, this::load);
+
+        cache.get("name", "c", 1, 0, this::load);
+
+        assertEquals(1, cache.stats().evictions());
+        assertArrayEquals(new byte[]{1}, cache.get("name", "a", 1, 0, this::load));
+        assertArrayEquals(new byte[]{4}, cache.get("name", "b", 1, 0, this::load));
+    }
+
+    @Test
+    void keywordNormalizationIgnoresOrderCaseAndBlanks() {
+        assertEquals(SearchResultCacheService.normalizeKeywords(List.of("Red", " shoe ", "")),
+                SearchResultCacheService.normalizeKeywords(List.of("SHOE", "red")));
+    }
+}
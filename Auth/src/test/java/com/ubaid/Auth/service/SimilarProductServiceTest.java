@@ -0,0 +1,62 @@
+package com.ubaid.Auth.service;
+
+import com.ubaid.Auth.model.Product;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SimilarProductServiceTest {
+
+    private static Product product(String pId, String category, String brand, String... keywords) {
+        Product product = new Product();
+        product.setpId(pId);
+        product.setCategory(category);
+        product.setpBrandName(brand);
+        product.setKeywords(List.of(keywords));
+        return product;
+    }
+
+    @Test
+    void closestFeatureSetsRankFirst() {
+        SimilarProductService similar = new SimilarProductService(256);
+        similar.onProductUpserted(null, product("p1", "Audio", "Acme", "wireless", "headphones", "bluetooth"));
+        similar.onProductUpserted(null, product("p2", "Audio", "Acme", "wireless", "headphones", "bluetooth", "anc"));
+        similar.onProductUpserted(null, product("p3", "Kitchen", "Zed", "kettle", "steel"));
+
+        List<String> result = similar.similar("p1", 10);
+
+        assertEquals("p2", result.get(0));
+        assertFalse(result.contains("p1"));
+        assertEquals(List.of(), similar.similar("unknown", 10));
+    }
+
+    @Test
+    void crowdedBucketsAreCapped() {
+        SimilarProductService similar = new SimilarProductService(5);
+        // Identical features put every product in the same bucket of every band
+        for (int i = 0; i < 50; i++) {
+            similar.onProductUpserted(null, product("p" + i, "Audio", null));
+        }
+
+        List<String> result = similar.similar("p0", 100);
+
+        assertTrue(result.size() <= 5, "scored " + result.size() + " candidates");
+        assertFalse(result.isEmpty());
+    }
+
+    @Test
+    void removedProductsAreNotSuggested() {
+        SimilarProductService similar = new SimilarProductService(256);
+        Product p2 = product("p2", "Audio", "Acme");
+        similar.onProductUpserted(null, product("p1", "Audio", "Acme"));
+        similar.onProductUpserted(null, p2);
+
+        similar.onProductRemoved(p2);
+
+        assertEquals(List.of(), similar.similar("p1", 10));
+    }
+}
@@ -0,0 +1,170 @@
+package com.ubaid.Auth.service;
+
+import com.cloudinary.Cloudinary;
+import com.cloudinary.utils.ObjectUtils;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Allocation of one image upload: the old path, which read the part into a byte[] for
+ * {@code upload(byte[])}, against {@link CloudinaryService#uploadImage}, which hands Cloudinary a file.
+ * Uploads go to an embedded stub of the Upload API, and parts are disk-backed like the container's
+ * spooled parts; compare gc.alloc.rate.norm. Run with:
+ * mvn test-compile exec:exec -Dexec.executable=java -Dexec.classpathScope=test
+ *     -Dexec.args="-cp %classpath com.ubaid.Auth.service.UploadPathBenchmark"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class UploadPathBenchmark {
+
+    @Param({"262144", "4194304"})
+    private int imageBytes;
+
+    private HttpServer server;
+    private Cloudinary cloudinary;
+    private CloudinaryService cloudinaryService;
+    private Path image;
+    private MultipartFile part;
+
+    /**
+     * A part the container spooled to disk. Copying in transferTo is conservative: for a real
+     * spooled part it is a rename.
+     */
+    private record DiskMultipartFile(Path path) implements MultipartFile {
+        @Override
+        public String getName() {
+            return "image";
+        }
+
+        @Override
+        public String getOriginalFilename() {
+            return path.getFileName().toString();
+        }
+
+        @Override
+        public String getContentType() {
+            return "image/jpeg";
+        }
+
+        @Override
+        public boolean isEmpty() {
+            return getSize() == 0;
+        }
+
+        @Override
+        public long getSize() {
+            try {
+                return Files.size(path);
+            } catch (IOException e) {
+                return 0;
+            }
+        }
+
+        @Override
+        public byte[] getBytes() throws IOException {
+            return Files.readAllBytes(path);
+        }
+
+        @Override
+        public InputStream getInputStream() throws IOException {
+            return Files.newInputStream(path);
+        }
+
+        @Override
+        public void transferTo(File dest) throws IOException {
+            Files.copy(path, dest.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    @Setup
+    public void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/v1_1/demo/image/upload", UploadPathBenchmark::upload);
+        server.start();
+        cloudinary = new Cloudinary(ObjectUtils.asMap(
+                "cloud_name", "demo",
+                "api_key", "key",
+                "api_secret", "secret",
+                "upload_prefix", "http://127.0.0.1:" + server.getAddress().getPort()));
+        cloudinaryService = new CloudinaryService(cloudinary);
+
+        byte[] content = new byte[imageBytes];
+        new Random(42).nextBytes(content);
+        image = Files.createTempFile("upload-benchmark-", ".jpg");
+        Files.write(image, content);
+        part = new DiskMultipartFile(image);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        cloudinaryService.shutdown();
+        server.stop(0);
+        Files.deleteIfExists(image);
+    }
+
+    @Benchmark
+    public Object bufferedBytes() throws IOException {
+        // The upload path before images were streamed from disk
+        String folder = "products";
+        // ObjectUtils.asMap returns a raw Map
+        @SuppressWarnings("unchecked")
+        Map<String, Object> uploadOptions = ObjectUtils.asMap(
+                "public_id", folder + "/" + UUID.randomUUID(),
+                "folder", folder,
+                "resource_type", "image",
+                "quality", "auto:good",
+                "fetch_format", "auto"
+        );
+        return cloudinary.uploader().upload(part.getBytes(), uploadOptions).get("secure_url");
+    }
+
+    @Benchmark
+    public String streamedFromDisk() throws IOException {
+        return cloudinaryService.uploadImage(part, "products");
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(UploadPathBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build()).run();
+    }
+
+    // --- HELPER METHODS ---
+
+    private static void upload(HttpExchange exchange) throws IOException {
+        try (InputStream body = exchange.getRequestBody()) {
+            body.transferTo(OutputStream.nullOutputStream());
+        }
+        byte[] response = "{\"secure_url\":\"https://res.cloudinary.com/demo/image/upload/v1/products/x.jpg\"}"
+                .getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(200, response.length);
+        exchange.getResponseBody().write(response);
+        exchange.close();
+    }
+}